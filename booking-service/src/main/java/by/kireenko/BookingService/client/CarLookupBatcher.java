@@ -0,0 +1,158 @@
+package by.kireenko.BookingService.client;
+
+import by.kireenko.BookingService.dto.CarDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces car lookups per caller credential, so a batch call to car-service only ever carries the
+ * Authorization header of the requests it serves.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarLookupBatcher {
+    private final CarServiceClient carServiceClient;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "car-lookup-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Value("${booking.car-lookup.batch-window-ms:5}")
+    private long batchWindowMs;
+    @Value("${booking.car-lookup.max-batch-size:100}")
+    private int maxBatchSize;
+    @Value("${booking.car-lookup.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, PendingBatch> pendingByAuthorization = new HashMap<>();
+
+    public CarDto getCarById(Long id) {
+        return await(load(id), "car " + id);
+    }
+
+    public Map<Long, CarDto> getCarsByIds(Collection<Long> ids) {
+        Map<Long, CompletableFuture<CarDto>> futures = new HashMap<>();
+        ids.forEach(id -> futures.put(id, load(id)));
+        await(CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)), "cars " + ids);
+
+        Map<Long, CarDto> cars = new HashMap<>();
+        futures.forEach((id, future) -> {
+            CarDto car = future.join();
+            if (car != null) {
+                cars.put(id, car);
+            }
+        });
+        return cars;
+    }
+
+    public CompletableFuture<CarDto> load(Long id) {
+        String authorization = currentAuthorization();
+        lock.lock();
+        try {
+            PendingBatch batch = pendingByAuthorization.computeIfAbsent(authorization, key -> new PendingBatch());
+            CompletableFuture<CarDto> future = batch.futures.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            batch.futures.put(id, future);
+            if (batch.futures.size() >= maxBatchSize) {
+                scheduler.execute(() -> flush(authorization));
+            } else if (batch.scheduledFlush == null) {
+                batch.scheduledFlush = scheduler.schedule(() -> flush(authorization), batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+            return future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        List<String> authorizations;
+        lock.lock();
+        try {
+            authorizations = new ArrayList<>(pendingByAuthorization.keySet());
+        } finally {
+            lock.unlock();
+        }
+        authorizations.forEach(this::flush);
+    }
+
+    private void flush(String authorization) {
+        PendingBatch batch;
+        lock.lock();
+        try {
+            batch = pendingByAuthorization.remove(authorization);
+            if (batch != null && batch.scheduledFlush != null) {
+                batch.scheduledFlush.cancel(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch == null || batch.futures.isEmpty()) {
+            return;
+        }
+
+        Map<Long, CompletableFuture<CarDto>> futures = batch.futures;
+        log.debug("Fetching {} coalesced car lookups in one batch", futures.size());
+        carServiceClient.fetchCarsByIds(new ArrayList<>(futures.keySet()), authorization)
+                .subscribe(cars -> {
+                    Map<Long, CarDto> carsById = cars.stream()
+                            .collect(Collectors.toMap(CarDto::getId, Function.identity()));
+                    futures.forEach((id, future) -> future.complete(carsById.get(id)));
+                }, error -> futures.values().forEach(future -> future.completeExceptionally(error)),
+                        () -> futures.values().forEach(future -> future.complete(null)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private <T> T await(CompletableFuture<T> future, String description) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + description, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for " + description, e);
+        }
+    }
+
+    private static class PendingBatch {
+        private final Map<Long, CompletableFuture<CarDto>> futures = new HashMap<>();
+        private ScheduledFuture<?> scheduledFlush;
+    }
+
+    private String currentAuthorization() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+        }
+        return null;
+    }
+}
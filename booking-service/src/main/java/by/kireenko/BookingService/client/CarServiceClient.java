@@ -3,8 +3,11 @@ package by.kireenko.BookingService.client;
 import by.kireenko.BookingService.dto.CarDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -46,4 +49,28 @@ public class CarServiceClient {
                 .bodyToMono(new ParameterizedTypeReference<List<CarDto>>() {})
                 .block();
     }
-}
\ No newline at end of file
+
+    public Mono<CarDto> fetchCarById(Long id, String authorizationHeader) {
+        return webClientBuilder.build().get()
+                .uri(CAR_SERVICE_URL + "/{carId}", id)
+                .headers(headers -> setAuthorization(headers, authorizationHeader))
+                .retrieve()
+                .bodyToMono(CarDto.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<List<CarDto>> fetchCarsByIds(List<Long> ids, String authorizationHeader) {
+        return webClientBuilder.build().post()
+                .uri(CAR_SERVICE_URL + "/batch")
+                .headers(headers -> setAuthorization(headers, authorizationHeader))
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<CarDto>>() {});
+    }
+
+    private void setAuthorization(HttpHeaders headers, String authorizationHeader) {
+        if (authorizationHeader != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorizationHeader);
+        }
+    }
+}
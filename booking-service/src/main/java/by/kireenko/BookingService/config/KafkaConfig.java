@@ -1,6 +1,7 @@
 package by.kireenko.BookingService.config;
 
 import by.kireenko.BookingService.dto.BookingEventDto;
+import by.kireenko.BookingService.dto.CarDto;
 import by.kireenko.BookingService.dto.UserDto;
 import by.kireenko.BookingService.dto.event.BookingRequestedEvent;
 import by.kireenko.BookingService.dto.event.CarReservationFailedEvent;
@@ -26,6 +27,7 @@ public class KafkaConfig {
         Map<String, Class<?>> mappings = new HashMap<>();
         mappings.put("booking", BookingEventDto.class);
         mappings.put("user", UserDto.class);
+        mappings.put("car", CarDto.class);
         mappings.put("bookingRequested", BookingRequestedEvent.class);
         mappings.put("carReserved", CarReservedEvent.class);
         mappings.put("carReservationFailed", CarReservationFailedEvent.class);
@@ -10,6 +10,7 @@ public class KafkaTopicConfig {
 
     public static final String BOOKING_EVENTS_TOPIC = "booking-events";
     public static final String BOOKING_REQUESTS_TOPIC = "booking-requests-topic";
+    public static final String CAR_EVENTS_TOPIC = "car-events";
 
     @Bean
     public NewTopic bookingEventsTopic() {
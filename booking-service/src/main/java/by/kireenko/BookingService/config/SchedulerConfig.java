@@ -0,0 +1,20 @@
+package by.kireenko.BookingService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+    @Value("${booking.reactive.jdbc-threads:10}")
+    private int jdbcThreads;
+    @Value("${booking.reactive.jdbc-queue-size:10000}")
+    private int jdbcQueueSize;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler() {
+        return Schedulers.newBoundedElastic(jdbcThreads, jdbcQueueSize, "booking-jdbc");
+    }
+}
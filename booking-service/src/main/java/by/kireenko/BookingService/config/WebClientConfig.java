@@ -19,7 +19,11 @@ public class WebClientConfig {
                     if (attributes != null) {
                         String authorizationHeader = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
                         if (authorizationHeader != null) {
-                            request.header(HttpHeaders.AUTHORIZATION, authorizationHeader);
+                            request.headers(headers -> {
+                                if (!headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+                                    headers.set(HttpHeaders.AUTHORIZATION, authorizationHeader);
+                                }
+                            });
                         }
                     }
                 });
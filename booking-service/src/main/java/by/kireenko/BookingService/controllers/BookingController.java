@@ -1,18 +1,29 @@
 package by.kireenko.BookingService.controllers;
 
 import by.kireenko.BookingService.dto.BookingDto;
+import by.kireenko.BookingService.dto.BookingPageDto;
 import by.kireenko.BookingService.dto.CreateBookingRequestDto;
 import by.kireenko.BookingService.dto.UpdateBookingRequestDto;
+import by.kireenko.BookingService.models.Booking;
 import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.BookingStatusStream;
+import by.kireenko.BookingService.services.IdempotencyStore;
+import by.kireenko.BookingService.services.ReactiveBookingService;
 import by.kireenko.BookingService.utils.BookingDtoConverter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -21,37 +32,63 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ReactiveBookingService reactiveBookingService;
     private final BookingDtoConverter bookingDtoConverter;
+    private final IdempotencyStore idempotencyStore;
+    private final BookingStatusStream bookingStatusStream;
 
     @Autowired
-    public BookingController(BookingService bookingService, BookingDtoConverter bookingDtoConverter) {
+    public BookingController(BookingService bookingService, ReactiveBookingService reactiveBookingService,
+                             BookingDtoConverter bookingDtoConverter, IdempotencyStore idempotencyStore,
+                             BookingStatusStream bookingStatusStream) {
         this.bookingService = bookingService;
+        this.reactiveBookingService = reactiveBookingService;
         this.bookingDtoConverter = bookingDtoConverter;
+        this.idempotencyStore = idempotencyStore;
+        this.bookingStatusStream = bookingStatusStream;
     }
 
     @GetMapping
-    @Operation(summary = "Get user's bookings", description = "Returns a list of bookings for the currently authenticated user.")
-    public List<BookingDto> getCurrentUserBookings() {
-        return bookingService.getCurrentUserBookingsDto();
+    @Operation(summary = "Get user's bookings", description = "Returns a page of bookings for the currently authenticated user, newest first. Pass the returned 'nextCursor' as 'cursor' to get the next page.")
+    public Mono<BookingPageDto> getCurrentUserBookings(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size) {
+        return reactiveBookingService.getCurrentUserBookingsDto(cursor, size);
     }
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get all bookings (Admin only)", description = "Returns a complete list of all bookings in the system.")
-    public List<BookingDto> getAllBookings() {
-        return bookingService.getAllBookingsDto();
+    @Operation(summary = "Get all bookings (Admin only)", description = "Returns a page of all bookings in the system, newest first. Pass the returned 'nextCursor' as 'cursor' to get the next page.")
+    public Mono<BookingPageDto> getAllBookings(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        return reactiveBookingService.getAllBookingsDto(cursor, size);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export all bookings (Admin only)", description = "Streams every booking as newline-delimited JSON, reading the table through a database cursor.")
+    public void exportBookings(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        bookingService.exportBookings(response.getOutputStream());
+    }
+
+    @GetMapping(value = "/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream booking status changes", description = "Server-Sent Events stream that pushes a 'booking-status' event whenever a saga confirms ('Created') or cancels ('Cancelled') one of the current user's bookings. Open the stream before creating a booking to avoid missing its outcome.")
+    public SseEmitter streamBookingStatuses() {
+        return bookingStatusStream.subscribe(SecurityContextHolder.getContext().getAuthentication().getName());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a booking by ID", description = "Returns a single booking by its ID. Users can only view their own bookings, admins can view any.")
-    public BookingDto getBookingById(@PathVariable Long id) {
-        return bookingDtoConverter.convertToDto(bookingService.getBookingById(id));
+    public Mono<BookingDto> getBookingById(@PathVariable Long id) {
+        return reactiveBookingService.getBookingDtoById(id);
     }
 
     @PostMapping
     @Operation(summary = "Create a booking", description = "Creates a new booking for the current user.")
-    public BookingDto createBooking(@RequestBody CreateBookingRequestDto bookingRequestDto) {
-        return bookingDtoConverter.convertToDto(bookingService.createBooking(bookingRequestDto));
+    public BookingDto createBooking(@RequestBody CreateBookingRequestDto bookingRequestDto,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotent("create", idempotencyKey, bookingRequestDto,
+                () -> bookingService.createBooking(bookingRequestDto));
     }
 
     @PutMapping("/{id}")
@@ -68,8 +105,10 @@ public class BookingController {
 
     @PostMapping("/create-with-check")
     @Operation(summary = "Create a booking with availability check", description = "Creates a booking only if the car is available and updates the car's status to 'Rented'.")
-    public BookingDto createBookingWithCheck(@RequestBody CreateBookingRequestDto bookingRequestDto) {
-        return bookingDtoConverter.convertToDto(bookingService.createBookingWithCheck(bookingRequestDto));
+    public BookingDto createBookingWithCheck(@RequestBody CreateBookingRequestDto bookingRequestDto,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotent("create-with-check", idempotencyKey, bookingRequestDto,
+                () -> bookingService.createBookingWithCheck(bookingRequestDto));
     }
 
     @PutMapping("/{id}/complete")
@@ -77,4 +116,14 @@ public class BookingController {
     public BookingDto completeBooking(@PathVariable Long id) {
         return bookingDtoConverter.convertToDto(bookingService.completeBooking(id));
     }
+
+    private BookingDto idempotent(String operation, String idempotencyKey, CreateBookingRequestDto request,
+                                  Supplier<Booking> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return bookingDtoConverter.convertToDto(action.get());
+        }
+        String scope = SecurityContextHolder.getContext().getAuthentication().getName() + ":" + operation;
+        return idempotencyStore.execute(scope, idempotencyKey, request,
+                () -> bookingDtoConverter.convertToDto(action.get()));
+    }
 }
@@ -36,4 +36,14 @@ public class BookingDto {
         this.startDate = booking.getStartDate();
         this.endDate = booking.getEndDate();
     }
+
+    public BookingDto(BookingSummaryDto booking, CarDto carDto) {
+        this.id = booking.getId();
+        this.user = new UserDto(booking.getUserId(), booking.getUserName(), booking.getUserEmail(),
+                booking.getUserPhoneNumber());
+        this.car = carDto;
+        this.status = booking.getStatus();
+        this.startDate = booking.getStartDate();
+        this.endDate = booking.getEndDate();
+    }
 }
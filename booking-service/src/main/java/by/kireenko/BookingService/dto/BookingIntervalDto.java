@@ -0,0 +1,15 @@
+package by.kireenko.BookingService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BookingIntervalDto {
+    private Long id;
+    private Long carId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,19 @@
+package by.kireenko.BookingService.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A page of bookings ordered from newest to oldest")
+public class BookingPageDto {
+    @Schema(description = "Bookings on this page")
+    private List<BookingDto> bookings;
+    @Schema(description = "Opaque cursor to pass as 'cursor' to fetch the next page, null on the last page")
+    private String nextCursor;
+}
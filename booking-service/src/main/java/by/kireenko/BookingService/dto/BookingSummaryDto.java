@@ -0,0 +1,22 @@
+package by.kireenko.BookingService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingSummaryDto {
+    private Long id;
+    private Long carId;
+    private String status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateTime createdAt;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private String userPhoneNumber;
+}
@@ -1,5 +1,6 @@
 package by.kireenko.BookingService.dto;
 
+import by.kireenko.BookingService.models.CarView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,4 +23,13 @@ public class CarDto {
     private double rentalPrice;
     @Schema(description = "Current status of the car", example = "Available")
     private String status;
+
+    public CarDto(CarView carView) {
+        this.id = carView.getId();
+        this.brand = carView.getBrand();
+        this.model = carView.getModel();
+        this.year = carView.getYear();
+        this.rentalPrice = carView.getRentalPrice();
+        this.status = carView.getStatus();
+    }
 }
@@ -0,0 +1,13 @@
+package by.kireenko.BookingService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class PendingBookingDto {
+    private Long id;
+    private LocalDateTime createdAt;
+}
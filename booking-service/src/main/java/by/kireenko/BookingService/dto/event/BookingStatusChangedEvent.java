@@ -0,0 +1,14 @@
+package by.kireenko.BookingService.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+    private Long bookingId;
+    private String username;
+    private String status;
+}
@@ -0,0 +1,16 @@
+package by.kireenko.BookingService.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+    public BookingConflictException(Long carId, LocalDate startDate, LocalDate endDate) {
+        super("Car " + carId + " is already booked between " + startDate + " and " + endDate);
+    }
+}
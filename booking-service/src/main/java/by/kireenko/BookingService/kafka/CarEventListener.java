@@ -0,0 +1,43 @@
+package by.kireenko.BookingService.kafka;
+
+import by.kireenko.BookingService.config.KafkaTopicConfig;
+import by.kireenko.BookingService.dto.CarDto;
+import by.kireenko.BookingService.models.CarView;
+import by.kireenko.BookingService.repositories.CarViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarEventListener {
+    private final CarViewRepository carViewRepository;
+
+    @KafkaListener(topics = KafkaTopicConfig.CAR_EVENTS_TOPIC, groupId = "car-booking-group")
+    @Transactional
+    public void consumeCarEvent(ConsumerRecord<String, CarDto> record) {
+        String carIdStr = record.key();
+        CarDto carDto = record.value();
+
+        if (carDto == null) {
+            log.info("Received tombstone message for car ID: {}", carIdStr);
+            try {
+                Long carId = Long.parseLong(carIdStr);
+                carViewRepository.deleteById(carId);
+                log.info("Successfully deleted local view for car ID: {}", carId);
+            } catch (NumberFormatException e) {
+                log.error("Received tombstone with invalid key: {}", carIdStr, e);
+            }
+            return;
+        }
+
+        CarView carView = new CarView(carDto.getId(), carDto.getBrand(), carDto.getModel(), carDto.getYear(),
+                carDto.getRentalPrice(), carDto.getStatus());
+        carViewRepository.save(carView);
+        log.info("Successfully created/updated local view for car ID: {}", carDto.getId());
+    }
+}
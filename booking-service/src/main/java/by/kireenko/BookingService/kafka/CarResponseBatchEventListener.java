@@ -0,0 +1,127 @@
+package by.kireenko.BookingService.kafka;
+
+import by.kireenko.BookingService.dto.event.CarReservationFailedEvent;
+import by.kireenko.BookingService.dto.event.CarReservedEvent;
+import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.InboxDeduplicator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "booking.saga.reply-batch.enabled", havingValue = "true", matchIfMissing = true)
+public class CarResponseBatchEventListener implements ConsumerSeekAware {
+
+    private final BookingService bookingService;
+    private final InboxDeduplicator inboxDeduplicator;
+
+    @KafkaListener(topics = "car-reservation-success-topic", groupId = "booking-service-group", batch = "true")
+    public void handleCarReserved(List<CarReservedEvent> events) {
+        Map<Long, Integer> indexByBookingId = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            CarReservedEvent event = events.get(i);
+            if (event != null && event.getBookingId() != null) {
+                indexByBookingId.putIfAbsent(event.getBookingId(), i);
+            }
+        }
+        Set<Long> bookingIds = indexByBookingId.keySet();
+        dropDuplicates(BookingService.CAR_RESERVED, bookingIds);
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+
+        Collection<Long> leftoverIds;
+        try {
+            leftoverIds = bookingService.confirmBookingSagas(bookingIds);
+        } catch (Exception e) {
+            log.error("Batch confirmation of {} bookings failed, falling back to per-record processing",
+                    bookingIds.size(), e);
+            leftoverIds = bookingIds;
+        }
+
+        for (Long bookingId : inRecordOrder(leftoverIds, indexByBookingId)) {
+            try {
+                bookingService.confirmBookingSaga(bookingId);
+            } catch (Exception e) {
+                throw new BatchListenerFailedException("Failed to confirm saga for booking " + bookingId, e,
+                        indexByBookingId.get(bookingId));
+            }
+        }
+    }
+
+    @KafkaListener(topics = "car-reservation-failed-topic", groupId = "booking-service-group", batch = "true")
+    public void handleCarReservationFailed(List<CarReservationFailedEvent> events) {
+        Map<Long, String> reasonsByBookingId = new LinkedHashMap<>();
+        Map<Long, Integer> indexByBookingId = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            CarReservationFailedEvent event = events.get(i);
+            if (event != null && event.getBookingId() != null) {
+                reasonsByBookingId.put(event.getBookingId(), event.getReason());
+                indexByBookingId.putIfAbsent(event.getBookingId(), i);
+            }
+        }
+        dropDuplicates(BookingService.CAR_RESERVATION_FAILED, reasonsByBookingId.keySet());
+        if (reasonsByBookingId.isEmpty()) {
+            return;
+        }
+
+        Collection<Long> leftoverIds;
+        try {
+            leftoverIds = bookingService.rejectBookingSagas(reasonsByBookingId);
+        } catch (Exception e) {
+            log.error("Batch rejection of {} bookings failed, falling back to per-record processing",
+                    reasonsByBookingId.size(), e);
+            leftoverIds = reasonsByBookingId.keySet();
+        }
+
+        for (Long bookingId : inRecordOrder(leftoverIds, indexByBookingId)) {
+            try {
+                bookingService.rejectBookingSaga(bookingId, reasonsByBookingId.get(bookingId));
+            } catch (Exception e) {
+                throw new BatchListenerFailedException("Failed to reject saga for booking " + bookingId, e,
+                        indexByBookingId.get(bookingId));
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        inboxDeduplicator.onPartitionsAssigned();
+    }
+
+    /**
+     * Orders leftovers by the first record that carried them, so a failure reported at index N never
+     * commits an earlier record whose booking has not been handled yet.
+     */
+    private List<Long> inRecordOrder(Collection<Long> bookingIds, Map<Long, Integer> indexByBookingId) {
+        return bookingIds.stream()
+                .sorted(Comparator.comparing(indexByBookingId::get))
+                .toList();
+    }
+
+    private void dropDuplicates(String eventType, Set<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> processed = inboxDeduplicator.findProcessed(bookingIds.stream()
+                    .map(id -> InboxDeduplicator.messageId(eventType, id))
+                    .toList());
+            if (!processed.isEmpty()) {
+                bookingIds.removeIf(id -> processed.contains(InboxDeduplicator.messageId(eventType, id)));
+                log.info("Dropped {} duplicate {} replies", processed.size(), eventType);
+            }
+        } catch (Exception e) {
+            log.warn("Inbox duplicate check failed for {} replies, processing all of them", eventType, e);
+        }
+    }
+}
@@ -3,25 +3,54 @@ package by.kireenko.BookingService.kafka;
 import by.kireenko.BookingService.dto.event.CarReservationFailedEvent;
 import by.kireenko.BookingService.dto.event.CarReservedEvent;
 import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.InboxDeduplicator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class CarResponseEventListener {
+@ConditionalOnProperty(name = "booking.saga.reply-batch.enabled", havingValue = "false")
+public class CarResponseEventListener implements ConsumerSeekAware {
 
     private final BookingService bookingService;
+    private final InboxDeduplicator inboxDeduplicator;
 
     @KafkaListener(topics = "car-reservation-success-topic", groupId = "booking-service-group")
     public void handleCarReserved(CarReservedEvent event) {
+        if (isDuplicate(BookingService.CAR_RESERVED, event.getBookingId())) {
+            return;
+        }
         bookingService.confirmBookingSaga(event.getBookingId());
     }
 
     @KafkaListener(topics = "car-reservation-failed-topic", groupId = "booking-service-group")
     public void handleCarReservationFailed(CarReservationFailedEvent event) {
+        if (isDuplicate(BookingService.CAR_RESERVATION_FAILED, event.getBookingId())) {
+            return;
+        }
         bookingService.rejectBookingSaga(event.getBookingId(), event.getReason());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        inboxDeduplicator.onPartitionsAssigned();
+    }
+
+    private boolean isDuplicate(String eventType, Long bookingId) {
+        String messageId = InboxDeduplicator.messageId(eventType, bookingId);
+        if (inboxDeduplicator.findProcessed(List.of(messageId)).isEmpty()) {
+            return false;
+        }
+        log.info("Dropped duplicate message {}", messageId);
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package by.kireenko.BookingService.kafka;
+
+import by.kireenko.DatasourceCommon.notify.PgNotificationListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.outbox.listen-notify.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationListener {
+    private static final String CHANNEL = "outbox_events";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final OutboxRelayScheduler outboxRelayScheduler;
+
+    @Value("${booking.outbox.listen-notify.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+    @Value("${booking.outbox.listen-notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private PgNotificationListener listener;
+
+    @PostConstruct
+    public void start() {
+        listener = new PgNotificationListener(dataSourceProperties, CHANNEL, Duration.ofMillis(pollTimeoutMs),
+                Duration.ofMillis(reconnectDelayMs), outboxRelayScheduler::wakeUp,
+                payload -> outboxRelayScheduler.wakeUp());
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        listener.stop();
+    }
+}
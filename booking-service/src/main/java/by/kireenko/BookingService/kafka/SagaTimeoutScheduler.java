@@ -1,13 +1,15 @@
 package by.kireenko.BookingService.kafka;
 
-import by.kireenko.BookingService.models.Booking;
+import by.kireenko.BookingService.dto.PendingBookingDto;
 import by.kireenko.BookingService.repositories.BookingRepository;
 import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.SagaDeadlineQueue;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,29 +21,43 @@ public class SagaTimeoutScheduler {
 
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final SagaDeadlineQueue sagaDeadlineQueue;
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    @Value("${booking.saga.timeout-chunk-size:50}")
+    private int chunkSize;
+
+    @PostConstruct
+    public void rebuildDeadlines() {
+        List<PendingBookingDto> pendingBookings = bookingRepository
+                .findByStatusAndCreatedAtBefore("PENDING", LocalDateTime.now());
+        pendingBookings.forEach(booking -> sagaDeadlineQueue.register(booking.getId(), booking.getCreatedAt()));
+        log.info("Saga deadline queue rebuilt with {} pending bookings", pendingBookings.size());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.saga.sweep-interval-ms:1000}")
     public void processTimedOutBookings() {
-        LocalDateTime timeoutThreshold = LocalDateTime.now().minusMinutes(10);
-
-        List<Booking> abandonedBookings = bookingRepository
-                .findByStatusAndCreatedAtBefore("PENDING", timeoutThreshold);
-
-        if (!abandonedBookings.isEmpty()) {
-            log.warn("Found {} abandoned Saga transactions. Initiating timeout compensations.", abandonedBookings.size());
-
-            for (Booking booking : abandonedBookings) {
-                try {
-                    bookingService.rejectBookingSaga(
-                            booking.getId(),
-                            "Saga Timeout: Car service failed to respond within 10 minutes."
-                    );
-                    log.info("Successfully timed out booking ID {}", booking.getId());
-                } catch (Exception e) {
-                    log.error("Failed to process timeout for booking ID {}", booking.getId(), e);
+        List<Long> bookingIds;
+        while (!(bookingIds = sagaDeadlineQueue.pollExpired(chunkSize)).isEmpty()) {
+            try {
+                List<Long> lockedIds = bookingService.expirePendingBookings(bookingIds,
+                        "Saga Timeout: Car service failed to respond within " + sagaDeadlineQueue.getTimeout().toMinutes() + " minutes.");
+                if (!lockedIds.isEmpty()) {
+                    sagaDeadlineQueue.retryLater(lockedIds);
                 }
+            } catch (Exception e) {
+                log.error("Failed to process timeouts for bookings {}, retrying later", bookingIds, e);
+                sagaDeadlineQueue.retryLater(bookingIds);
             }
         }
     }
+
+    @Scheduled(fixedDelayString = "${booking.saga.resync-interval-ms:300000}", initialDelayString = "${booking.saga.resync-interval-ms:300000}")
+    public void resyncOverdueBookings() {
+        List<PendingBookingDto> overdueBookings = bookingRepository
+                .findByStatusAndCreatedAtBefore("PENDING", LocalDateTime.now().minus(sagaDeadlineQueue.getTimeout()));
+        overdueBookings.forEach(booking -> sagaDeadlineQueue.register(booking.getId(), booking.getCreatedAt()));
+        if (!overdueBookings.isEmpty()) {
+            log.warn("Re-registered {} overdue PENDING bookings in the saga deadline queue", overdueBookings.size());
+        }
+    }
 }
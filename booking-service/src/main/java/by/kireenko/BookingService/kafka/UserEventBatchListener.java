@@ -0,0 +1,70 @@
+package by.kireenko.BookingService.kafka;
+
+import by.kireenko.BookingService.dto.UserDto;
+import by.kireenko.BookingService.services.UserViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "booking.user-events.batch.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventBatchListener {
+    private final UserViewService userViewService;
+    private static final String USER_EVENTS_TOPIC = "user-events";
+
+    @KafkaListener(topics = USER_EVENTS_TOPIC, groupId = "car-booking-group", batch = "true")
+    public void consumeUserEvents(List<ConsumerRecord<String, UserDto>> records) {
+        // Re-inserting keeps users ordered by their latest record, so the fallback below reaches them in offset order.
+        Map<Long, ConsumerRecord<String, UserDto>> latestByUserId = new LinkedHashMap<>();
+        for (ConsumerRecord<String, UserDto> record : records) {
+            Long userId = userIdOf(record);
+            if (userId != null) {
+                latestByUserId.remove(userId);
+                latestByUserId.put(userId, record);
+            }
+        }
+        if (latestByUserId.isEmpty()) {
+            return;
+        }
+
+        Map<Long, UserDto> updates = new LinkedHashMap<>();
+        latestByUserId.forEach((userId, record) -> updates.put(userId, record.value()));
+        try {
+            userViewService.applyUserEvents(updates);
+        } catch (Exception e) {
+            log.error("Batch of {} user events failed, falling back to per-record processing",
+                    updates.size(), e);
+            latestByUserId.forEach(this::applySingle);
+        }
+    }
+
+    private void applySingle(Long userId, ConsumerRecord<String, UserDto> record) {
+        try {
+            userViewService.applyUserEvent(userId, record.value());
+        } catch (Exception e) {
+            throw new BatchListenerFailedException("Failed to apply user event for user ID: " + userId, e, record);
+        }
+    }
+
+    private Long userIdOf(ConsumerRecord<String, UserDto> record) {
+        if (record.value() != null && record.value().getId() != null) {
+            return record.value().getId();
+        }
+        try {
+            return Long.parseLong(record.key());
+        } catch (NumberFormatException e) {
+            log.error("Received user event with invalid key: {}", record.key(), e);
+            return null;
+        }
+    }
+}
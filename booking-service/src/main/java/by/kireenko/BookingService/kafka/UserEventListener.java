@@ -3,18 +3,24 @@ package by.kireenko.BookingService.kafka;
 import by.kireenko.BookingService.dto.UserDto;
 import by.kireenko.BookingService.models.UserView;
 import by.kireenko.BookingService.repositories.UserViewRepository;
+import by.kireenko.BookingService.services.UserViewCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "booking.user-events.batch.enabled", havingValue = "false")
 public class UserEventListener {
     private final UserViewRepository userViewRepository;
+    private final UserViewCache userViewCache;
     private static final String USER_EVENTS_TOPIC = "user-events";
 
     @KafkaListener(topics = USER_EVENTS_TOPIC, groupId = "car-booking-group")
@@ -27,6 +33,7 @@ public class UserEventListener {
             log.info("Received tombstone message for user ID: {}", userIdStr);
             try {
                 Long userId = Long.parseLong(userIdStr);
+                userViewCache.invalidateAfterCommit(List.of(userId), List.of());
                 userViewRepository.deleteById(userId);
                 log.info("Successfully deleted local view for user ID: {}", userId);
             } catch (NumberFormatException e) {
@@ -36,6 +43,7 @@ public class UserEventListener {
         }
 
         log.info("Consumed user event for user: {}", userDto.getName());
+        userViewCache.invalidateAfterCommit(List.of(userDto.getId()), List.of(userDto.getName()));
         UserView userView = new UserView(userDto.getId(), userDto.getName(), userDto.getEmail(), userDto.getPhoneNumber());
         userViewRepository.save(userView);
         log.info("Successfully created/updated local view for user ID: {}", userDto.getId());
@@ -0,0 +1,33 @@
+package by.kireenko.BookingService.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "cars_view")
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CarView {
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String brand;
+
+    @Column(nullable = false, length = 50)
+    private String model;
+
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Double rentalPrice;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+}
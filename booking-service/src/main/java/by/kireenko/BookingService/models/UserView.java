@@ -14,7 +14,6 @@ import lombok.Setter;
 @NoArgsConstructor
 public class UserView {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -1,21 +1,83 @@
 package by.kireenko.BookingService.repositories;
 
+import by.kireenko.BookingService.dto.BookingIntervalDto;
+import by.kireenko.BookingService.dto.BookingSummaryDto;
+import by.kireenko.BookingService.dto.PendingBookingDto;
 import by.kireenko.BookingService.models.Booking;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingStatusNotificationRepository {
+    String SELECT_SUMMARY = "select new by.kireenko.BookingService.dto.BookingSummaryDto(" +
+            "b.id, b.carId, b.status, b.startDate, b.endDate, b.createdAt, u.id, u.name, u.email, u.phoneNumber) " +
+            "from Booking b join b.userView u ";
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Booking> findAndLockById(Long id);
 
-    List<Booking> findByUserViewId(Long userId);
+    @Query(SELECT_SUMMARY + "where u.id = :userId order by b.createdAt desc, b.id desc")
+    List<BookingSummaryDto> findSummariesByUserViewId(Long userId);
+
+    List<PendingBookingDto> findByStatusAndCreatedAtBefore(String status, LocalDateTime cutoffTime);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select b from Booking b where b.id in :ids and b.status = 'PENDING'")
+    List<Booking> lockPendingSkippingLocked(Collection<Long> ids);
+
+    @Query("select b.id from Booking b where b.id in :ids and b.status = 'PENDING'")
+    List<Long> findPendingIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id in :ids")
+    int updateStatus(Collection<Long> ids, String status);
+
+    List<BookingIntervalDto> findByStatusInAndEndDateGreaterThanEqual(Collection<String> statuses, LocalDate date);
+
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(:carId)) as car_lock", nativeQuery = true)
+    long lockCarBookings(Long carId);
+
+    /**
+     * The status list is inlined so the planner can match the partial index {@code idx_bookings_active_car_dates};
+     * keep it in sync with {@code BookingIntervalIndex.ACTIVE_STATUSES}.
+     */
+    @Query("select count(b) > 0 from Booking b where b.carId = :carId and b.status in ('PENDING', 'Created') " +
+            "and b.id <> :excludedId and b.startDate <= :endDate and b.endDate >= :startDate")
+    boolean existsOverlapping(Long carId, Long excludedId, LocalDate startDate, LocalDate endDate);
+
+    @Query(SELECT_SUMMARY + "order by b.createdAt desc, b.id desc")
+    List<BookingSummaryDto> findFirstPage(Limit limit);
+
+    @Query(SELECT_SUMMARY + "where b.createdAt <= :createdAt and (b.createdAt < :createdAt or b.id < :id) " +
+            "order by b.createdAt desc, b.id desc")
+    List<BookingSummaryDto> findPageAfter(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "where u.id = :userId order by b.createdAt desc, b.id desc")
+    List<BookingSummaryDto> findFirstPageByUserViewId(Long userId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "where u.id = :userId " +
+            "and b.createdAt <= :createdAt and (b.createdAt < :createdAt or b.id < :id) " +
+            "order by b.createdAt desc, b.id desc")
+    List<BookingSummaryDto> findPageByUserViewIdAfter(Long userId, LocalDateTime createdAt, Long id, Limit limit);
 
-    List<Booking> findByStatusAndCreatedAtBefore(String status, LocalDateTime cutoffTime);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SUMMARY + "order by b.id")
+    Stream<BookingSummaryDto> streamAllForExport();
 }
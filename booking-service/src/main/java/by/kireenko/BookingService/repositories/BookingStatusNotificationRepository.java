@@ -0,0 +1,11 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+
+import java.util.Collection;
+
+public interface BookingStatusNotificationRepository {
+    String CHANNEL = "booking_status";
+
+    void notifyStatusChanged(Collection<BookingStatusChangedEvent> events);
+}
@@ -0,0 +1,36 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class BookingStatusNotificationRepositoryImpl implements BookingStatusNotificationRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void notifyStatusChanged(Collection<BookingStatusChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String[] payloads = events.stream()
+                .map(this::toJson)
+                .toArray(String[]::new);
+        jdbcTemplate.query("select pg_notify('" + CHANNEL + "', payload) from unnest(?::text[]) as payload",
+                (ResultSetExtractor<Void>) resultSet -> null, (Object) payloads);
+    }
+
+    private String toJson(BookingStatusChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize status change of booking " + event.getBookingId(), e);
+        }
+    }
+}
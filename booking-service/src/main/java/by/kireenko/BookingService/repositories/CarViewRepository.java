@@ -0,0 +1,9 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.models.CarView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CarViewRepository extends JpaRepository<CarView, Long> {
+}
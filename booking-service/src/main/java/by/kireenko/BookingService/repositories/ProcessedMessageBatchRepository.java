@@ -0,0 +1,7 @@
+package by.kireenko.BookingService.repositories;
+
+import java.util.Collection;
+
+public interface ProcessedMessageBatchRepository {
+    int insertIgnoringDuplicates(Collection<String> messageIds);
+}
@@ -0,0 +1,18 @@
+package by.kireenko.BookingService.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ProcessedMessageBatchRepositoryImpl implements ProcessedMessageBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoringDuplicates(Collection<String> messageIds) {
+        return jdbcTemplate.update("insert into processed_messages (message_id, processed_at) " +
+                        "select unnest(?::varchar[]), now() on conflict (message_id) do nothing",
+                (Object) messageIds.toArray(String[]::new));
+    }
+}
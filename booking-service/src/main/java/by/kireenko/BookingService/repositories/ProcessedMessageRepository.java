@@ -0,0 +1,31 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.models.ProcessedMessage;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String>, ProcessedMessageBatchRepository {
+    @Query("select m.messageId from ProcessedMessage m where m.messageId in :messageIds")
+    List<String> findExistingIds(Collection<String> messageIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select m.messageId from ProcessedMessage m where m.processedAt >= :since order by m.processedAt desc")
+    Stream<String> streamIdsProcessedSince(LocalDateTime since, Limit limit);
+
+    @Modifying
+    @Query("delete from ProcessedMessage m where m.processedAt < :before")
+    int deleteProcessedBefore(LocalDateTime before);
+}
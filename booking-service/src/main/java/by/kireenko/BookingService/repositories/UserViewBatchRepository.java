@@ -0,0 +1,9 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.models.UserView;
+
+import java.util.Collection;
+
+public interface UserViewBatchRepository {
+    void upsertAll(Collection<UserView> userViews);
+}
@@ -0,0 +1,25 @@
+package by.kireenko.BookingService.repositories;
+
+import by.kireenko.BookingService.models.UserView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class UserViewBatchRepositoryImpl implements UserViewBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<UserView> userViews) {
+        jdbcTemplate.batchUpdate("insert into users_view (id, name, email, phone_number) values (?, ?, ?, ?) " +
+                        "on conflict (id) do update set name = excluded.name, email = excluded.email, " +
+                        "phone_number = excluded.phone_number",
+                userViews, userViews.size(), (statement, userView) -> {
+                    statement.setLong(1, userView.getId());
+                    statement.setString(2, userView.getName());
+                    statement.setString(3, userView.getEmail());
+                    statement.setString(4, userView.getPhoneNumber());
+                });
+    }
+}
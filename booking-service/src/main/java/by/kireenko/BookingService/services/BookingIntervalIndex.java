@@ -0,0 +1,210 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.dto.BookingIntervalDto;
+import by.kireenko.BookingService.error.BookingConflictException;
+import by.kireenko.BookingService.repositories.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<String> ACTIVE_STATUSES = Set.of("PENDING", "Created");
+    private static final Long NO_BOOKING = -1L;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, CarIntervals> intervalsByCar = new ConcurrentHashMap<>();
+    private final Map<Long, BookedInterval> intervalsByBooking = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        int skipped = 0;
+        for (BookingIntervalDto dto : bookingRepository.findByStatusInAndEndDateGreaterThanEqual(ACTIVE_STATUSES, LocalDate.now())) {
+            BookedInterval interval = new BookedInterval(dto.getId(), dto.getCarId(), dto.getStartDate(), dto.getEndDate());
+            if (!tryPut(interval)) {
+                log.warn("Booking {} overlaps an already indexed booking for car {}", dto.getId(), dto.getCarId());
+                skipped++;
+            }
+        }
+        log.info("Booking interval index warmed up with {} bookings ({} overlapping skipped)",
+                intervalsByBooking.size(), skipped);
+    }
+
+    /**
+     * Fast pre-filter: only a local hit costs a database round trip. A hit the database does not confirm (a booking
+     * released on another instance) does not reject the request; the stale entry stays in the index until
+     * {@link #reserve} or {@link #reschedule} overwrites it.
+     */
+    public void assertAvailable(Long carId, LocalDate startDate, LocalDate endDate) {
+        CarIntervals intervals = intervalsFor(carId);
+        boolean indexed;
+        intervals.lock().lock();
+        try {
+            indexed = overlaps(intervals.slots(), startDate, endDate);
+        } finally {
+            intervals.lock().unlock();
+        }
+        if (indexed && bookingRepository.existsOverlapping(carId, NO_BOOKING, startDate, endDate)) {
+            throw new BookingConflictException(carId, startDate, endDate);
+        }
+    }
+
+    public void reserve(Long bookingId, Long carId, LocalDate startDate, LocalDate endDate) {
+        confirmAvailable(bookingId, carId, startDate, endDate);
+        BookedInterval interval = new BookedInterval(bookingId, carId, startDate, endDate);
+        putConfirmed(interval);
+        onRollback(() -> remove(interval));
+    }
+
+    public void reschedule(Long bookingId, Long carId, LocalDate startDate, LocalDate endDate) {
+        confirmAvailable(bookingId, carId, startDate, endDate);
+        BookedInterval previous = intervalsByBooking.get(bookingId);
+        BookedInterval interval = new BookedInterval(bookingId, carId, startDate, endDate);
+        if (previous != null) {
+            remove(previous);
+        }
+        putConfirmed(interval);
+        onRollback(() -> {
+            remove(interval);
+            if (previous != null) {
+                tryPut(previous);
+            }
+        });
+    }
+
+    public void release(Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeByBookingId(bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeByBookingId(bookingId);
+            }
+        });
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void evictExpired() {
+        LocalDate today = LocalDate.now();
+        intervalsByCar.values().forEach(intervals -> {
+            NavigableMap<LocalDate, BookedInterval> slots = intervals.slots();
+            intervals.lock().lock();
+            try {
+                while (!slots.isEmpty() && slots.firstEntry().getValue().endDate().isBefore(today)) {
+                    intervalsByBooking.remove(slots.pollFirstEntry().getValue().bookingId());
+                }
+            } finally {
+                intervals.lock().unlock();
+            }
+        });
+    }
+
+    private boolean tryPut(BookedInterval interval) {
+        CarIntervals intervals = intervalsFor(interval.carId());
+        intervals.lock().lock();
+        try {
+            if (overlaps(intervals.slots(), interval.startDate(), interval.endDate())) {
+                return false;
+            }
+            intervals.slots().put(interval.startDate(), interval);
+            intervalsByBooking.put(interval.bookingId(), interval);
+            return true;
+        } finally {
+            intervals.lock().unlock();
+        }
+    }
+
+    /**
+     * The database is authoritative because other instances write bookings this index never sees; the advisory
+     * lock serializes the check with concurrent reservations of the same car until this transaction ends.
+     */
+    private void confirmAvailable(Long bookingId, Long carId, LocalDate startDate, LocalDate endDate) {
+        bookingRepository.lockCarBookings(carId);
+        if (bookingRepository.existsOverlapping(carId, bookingId, startDate, endDate)) {
+            throw new BookingConflictException(carId, startDate, endDate);
+        }
+    }
+
+    private void putConfirmed(BookedInterval interval) {
+        CarIntervals intervals = intervalsFor(interval.carId());
+        NavigableMap<LocalDate, BookedInterval> slots = intervals.slots();
+        intervals.lock().lock();
+        try {
+            Map.Entry<LocalDate, BookedInterval> stale;
+            while ((stale = slots.floorEntry(interval.endDate())) != null
+                    && !stale.getValue().endDate().isBefore(interval.startDate())) {
+                slots.remove(stale.getKey());
+                intervalsByBooking.remove(stale.getValue().bookingId(), stale.getValue());
+            }
+            slots.put(interval.startDate(), interval);
+            intervalsByBooking.put(interval.bookingId(), interval);
+        } finally {
+            intervals.lock().unlock();
+        }
+    }
+
+    private void removeByBookingId(Long bookingId) {
+        BookedInterval interval = intervalsByBooking.get(bookingId);
+        if (interval != null) {
+            remove(interval);
+        }
+    }
+
+    private void remove(BookedInterval interval) {
+        CarIntervals intervals = intervalsFor(interval.carId());
+        intervals.lock().lock();
+        try {
+            intervals.slots().remove(interval.startDate(), interval);
+            intervalsByBooking.remove(interval.bookingId(), interval);
+        } finally {
+            intervals.lock().unlock();
+        }
+    }
+
+    private boolean overlaps(NavigableMap<LocalDate, BookedInterval> slots, LocalDate startDate, LocalDate endDate) {
+        Map.Entry<LocalDate, BookedInterval> candidate = slots.floorEntry(endDate);
+        return candidate != null && !candidate.getValue().endDate().isBefore(startDate);
+    }
+
+    private CarIntervals intervalsFor(Long carId) {
+        return intervalsByCar.computeIfAbsent(carId, id -> new CarIntervals(new ReentrantLock(), new TreeMap<>()));
+    }
+
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private record CarIntervals(Lock lock, NavigableMap<LocalDate, BookedInterval> slots) {
+    }
+
+    private record BookedInterval(Long bookingId, Long carId, LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -3,16 +3,22 @@ package by.kireenko.BookingService.services;
 import by.kireenko.BookingService.client.CarServiceClient;
 import by.kireenko.BookingService.dto.*;
 import by.kireenko.BookingService.dto.event.BookingRequestedEvent;
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import by.kireenko.BookingService.error.NotValidResourceState;
 import by.kireenko.BookingService.error.ResourceNotFoundException;
 import by.kireenko.BookingService.kafka.BookingEventPublisher;
+import by.kireenko.BookingService.kafka.OutboxRelayScheduler;
 import by.kireenko.BookingService.models.Booking;
 import by.kireenko.BookingService.models.OutboxEvent;
 import by.kireenko.BookingService.models.UserView;
 import by.kireenko.BookingService.repositories.BookingRepository;
 import by.kireenko.BookingService.repositories.OutboxEventRepository;
+import by.kireenko.BookingService.utils.BookingCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,89 +26,149 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class BookingService {
+    public static final String CAR_RESERVED = "carReserved";
+    public static final String CAR_RESERVATION_FAILED = "carReservationFailed";
+
     private final CarServiceClient carServiceClient;
     private final BookingRepository bookingRepository;
     private final UserViewService userViewService;
     private final BookingEventPublisher bookingEventPublisher;
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final CarViewService carViewService;
+    private final OutboxRelayScheduler outboxRelayScheduler;
+    private final SagaDeadlineQueue sagaDeadlineQueue;
+    private final InboxDeduplicator inboxDeduplicator;
+
+    @Value("${booking.pagination.default-size:20}")
+    private int defaultPageSize;
+    @Value("${booking.pagination.max-size:100}")
+    private int maxPageSize;
+    @Value("${booking.export.chunk-size:500}")
+    private int exportChunkSize;
 
     @Autowired
     public BookingService(CarServiceClient carServiceClient, BookingRepository bookingRepository,
                           UserViewService userViewService, BookingEventPublisher bookingEventPublisher,
-                          OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+                          OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                          BookingIntervalIndex bookingIntervalIndex, CarViewService carViewService,
+                           OutboxRelayScheduler outboxRelayScheduler,
+                          SagaDeadlineQueue sagaDeadlineQueue, InboxDeduplicator inboxDeduplicator) {
         this.carServiceClient = carServiceClient;
         this.bookingRepository = bookingRepository;
         this.userViewService = userViewService;
         this.bookingEventPublisher = bookingEventPublisher;
         this.outboxEventRepository = outboxEventRepository;
         this.objectMapper = objectMapper;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.carViewService = carViewService;
+        this.outboxRelayScheduler = outboxRelayScheduler;
+        this.sagaDeadlineQueue = sagaDeadlineQueue;
+        this.inboxDeduplicator = inboxDeduplicator;
     }
 
-    public List<Booking> getAllBookings() {
-        log.info("Fetching all bookings");
-        return bookingRepository.findAll();
+    public BookingPageDto getAllBookingsDto(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<BookingSummaryDto> bookings = findAllBookingsPage(cursor, pageSize);
+        return toBookingPage(bookings, pageSize, carViewService.getCarDtosByIds(carIdsOf(bookings, pageSize)));
     }
 
-    public List<BookingDto> getAllBookingsDto() {
-        List<Booking> bookings = getAllBookings();
-        if (bookings.isEmpty()) {
-            return Collections.emptyList();
+    public List<BookingSummaryDto> findAllBookingsPage(String cursor, int pageSize) {
+        Limit limit = Limit.of(pageSize + 1);
+        if (cursor == null) {
+            return bookingRepository.findFirstPage(limit);
         }
+        BookingCursor after = BookingCursor.decode(cursor);
+        return bookingRepository.findPageAfter(after.createdAt(), after.id(), limit);
+    }
 
-        List<Long> carIds = bookings.stream()
-                .map(Booking::getCarId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<CarDto> carDtos = carServiceClient.getCarsByIds(carIds);
-        Map<Long, CarDto> carDtoMap = carDtos.stream().collect(Collectors.toMap(CarDto::getId, car -> car));
+    public List<BookingSummaryDto> getCurrentUserBookings() {
+        UserView userView = userViewService.getCurrentUserView();
+        return bookingRepository.findSummariesByUserViewId(userView.getId());
+    }
 
-        return bookings.stream()
-                .map(booking -> {
-                    CarDto carDto = carDtoMap.get(booking.getCarId());
-                    return new BookingDto(booking, carDto);
-                })
-                .collect(Collectors.toList());
+    public BookingPageDto getCurrentUserBookingsDto(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<BookingSummaryDto> bookings = findCurrentUserBookingsPage(cursor, pageSize);
+        return toBookingPage(bookings, pageSize, carViewService.getCarDtosByIds(carIdsOf(bookings, pageSize)));
     }
 
-    public List<Booking> getCurrentUserBookings() {
+    public List<BookingSummaryDto> findCurrentUserBookingsPage(String cursor, int pageSize) {
         UserView userView = userViewService.getCurrentUserView();
-        return bookingRepository.findByUserViewId(userView.getId());
+        Limit limit = Limit.of(pageSize + 1);
+        if (cursor == null) {
+            return bookingRepository.findFirstPageByUserViewId(userView.getId(), limit);
+        }
+        BookingCursor after = BookingCursor.decode(cursor);
+        return bookingRepository.findPageByUserViewIdAfter(userView.getId(), after.createdAt(), after.id(), limit);
     }
 
-    public List<BookingDto> getCurrentUserBookingsDto() {
-        List<Booking> bookingList = getCurrentUserBookings();
+    public void exportBookings(OutputStream outputStream) throws IOException {
+        List<BookingSummaryDto> chunk = new ArrayList<>(exportChunkSize);
+        long exported = 0;
+        try (Stream<BookingSummaryDto> bookings = bookingRepository.streamAllForExport()) {
+            Iterator<BookingSummaryDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= exportChunkSize || !iterator.hasNext()) {
+                    writeExportChunk(chunk, outputStream);
+                    exported += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        log.info("Exported {} bookings", exported);
+    }
+
+    private void writeExportChunk(List<BookingSummaryDto> chunk, OutputStream outputStream) throws IOException {
+        Map<Long, CarDto> carDtoMap = carViewService.getCarDtosByIds(carIdsOf(chunk, chunk.size()));
+
+        for (BookingSummaryDto booking : chunk) {
+            outputStream.write(objectMapper.writeValueAsBytes(new BookingDto(booking, carDtoMap.get(booking.getCarId()))));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
 
-        if (bookingList.isEmpty()) {
-            return Collections.emptyList();
+    public int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
         }
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 
-        List<Long> carIds = bookingList.stream()
-                .map(Booking::getCarId)
+    public List<Long> carIdsOf(List<BookingSummaryDto> bookings, int pageSize) {
+        return bookings.stream()
+                .limit(pageSize)
+                .map(BookingSummaryDto::getCarId)
                 .distinct()
                 .toList();
+    }
 
-        List<CarDto> carDtos = carServiceClient.getCarsByIds(carIds);
-
-        Map<Long, CarDto> carDtoMap = carDtos.stream().collect(Collectors.toMap(CarDto::getId, car -> car));
+    public BookingPageDto toBookingPage(List<BookingSummaryDto> bookings, int pageSize, Map<Long, CarDto> carDtoMap) {
+        boolean hasMore = bookings.size() > pageSize;
+        List<BookingSummaryDto> page = hasMore ? bookings.subList(0, pageSize) : bookings;
+        if (page.isEmpty()) {
+            return new BookingPageDto(Collections.emptyList(), null);
+        }
 
-        return bookingList.stream()
-                .map(booking -> {
-                    CarDto carDto = carDtoMap.get(booking.getCarId());
-                    return new BookingDto(booking, carDto);
-                })
+        List<BookingDto> bookingDtos = page.stream()
+                .map(booking -> new BookingDto(booking, carDtoMap.get(booking.getCarId())))
                 .toList();
+        String nextCursor = hasMore ? BookingCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new BookingPageDto(bookingDtos, nextCursor);
     }
 
     public Booking getBookingById(Long id) {
@@ -142,8 +208,11 @@ public class BookingService {
 
     @Transactional
     public Booking createBooking(CreateBookingRequestDto bookingRequestDto) {
+        validateDates(bookingRequestDto.getStartDate(), bookingRequestDto.getEndDate());
+        bookingIntervalIndex.assertAvailable(bookingRequestDto.getCarId(), bookingRequestDto.getStartDate(),
+                bookingRequestDto.getEndDate());
         UserView userView = userViewService.getCurrentUserView();
-        CarDto carDto = carServiceClient.getCarById(bookingRequestDto.getCarId());
+        CarDto carDto = carViewService.getCarDtoById(bookingRequestDto.getCarId());
         if (carDto == null) {
             throw new ResourceNotFoundException("Car", "id", bookingRequestDto.getCarId());
         }
@@ -156,6 +225,10 @@ public class BookingService {
         booking.setStatus("PENDING");
 
         Booking createdBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.reserve(createdBooking.getId(), createdBooking.getCarId(),
+                createdBooking.getStartDate(), createdBooking.getEndDate());
+        sagaDeadlineQueue.registerAfterCommit(createdBooking.getId(), createdBooking.getCreatedAt());
+        saveOutboxEvent(createdBooking.getId().toString(), "booking", new BookingEventDto(createdBooking));
 
         bookingEventPublisher.sendBookingRequestedEvent(new BookingRequestedEvent(createdBooking.getId(),
                 createdBooking.getCarId()));
@@ -178,12 +251,20 @@ public class BookingService {
             throw new IllegalStateException("Only CREATED or PENDING bookings can be updated");
         }
 
-        if (updatedBookingRequest.getStartDate() != null)
-            existingBooking.setStartDate(updatedBookingRequest.getStartDate());
-        if (updatedBookingRequest.getEndDate() != null)
-            existingBooking.setEndDate(updatedBookingRequest.getEndDate());
+        if (updatedBookingRequest.getStartDate() != null || updatedBookingRequest.getEndDate() != null) {
+            LocalDate startDate = updatedBookingRequest.getStartDate() != null
+                    ? updatedBookingRequest.getStartDate() : existingBooking.getStartDate();
+            LocalDate endDate = updatedBookingRequest.getEndDate() != null
+                    ? updatedBookingRequest.getEndDate() : existingBooking.getEndDate();
+            validateDates(startDate, endDate);
+            bookingIntervalIndex.reschedule(id, existingBooking.getCarId(), startDate, endDate);
+            existingBooking.setStartDate(startDate);
+            existingBooking.setEndDate(endDate);
+        }
         if (updatedBookingRequest.getStatus() != null)
             existingBooking.setStatus(updatedBookingRequest.getStatus());
+        if (!BookingIntervalIndex.ACTIVE_STATUSES.contains(existingBooking.getStatus()))
+            bookingIntervalIndex.release(id);
 
         Booking updatedBooking = bookingRepository.save(existingBooking);
 
@@ -214,10 +295,14 @@ public class BookingService {
         saveOutboxEvent(id.toString(), "bookingDeleted", null);
 
         bookingRepository.deleteById(id);
+        bookingIntervalIndex.release(id);
     }
 
     @Transactional(readOnly = false)
     public Booking createBookingWithCheck(CreateBookingRequestDto bookingRequestDto) {
+        validateDates(bookingRequestDto.getStartDate(), bookingRequestDto.getEndDate());
+        bookingIntervalIndex.assertAvailable(bookingRequestDto.getCarId(), bookingRequestDto.getStartDate(),
+                bookingRequestDto.getEndDate());
         UserView userView = userViewService.getCurrentUserView();
 
         Booking booking = new Booking();
@@ -228,6 +313,10 @@ public class BookingService {
         booking.setStatus("PENDING");
 
         Booking savedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.reserve(savedBooking.getId(), savedBooking.getCarId(),
+                savedBooking.getStartDate(), savedBooking.getEndDate());
+        sagaDeadlineQueue.registerAfterCommit(savedBooking.getId(), savedBooking.getCreatedAt());
+        saveOutboxEvent(savedBooking.getId().toString(), "booking", new BookingEventDto(savedBooking));
 
         bookingEventPublisher.sendBookingRequestedEvent(
                 new BookingRequestedEvent(savedBooking.getId(), savedBooking.getCarId())
@@ -250,6 +339,7 @@ public class BookingService {
 
         booking.setStatus("Completed");
         Booking completedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.release(bookingId);
 
         saveOutboxEvent(
                 completedBooking.getId().toString(),
@@ -266,11 +356,23 @@ public class BookingService {
         return !isAdmin && !userView.getId().equals(booking.getUserView().getId());
     }
 
+    private void validateDates(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new NotValidResourceState("Booking", "date range", startDate + " - " + endDate,
+                    "startDate not after endDate");
+        }
+    }
+
     private void saveOutboxEvent(String aggregateId, String eventType, Object payload) {
+        outboxEventRepository.save(buildOutboxEvent(aggregateId, eventType, payload));
+        outboxRelayScheduler.wakeUpAfterCommit();
+    }
+
+    private OutboxEvent buildOutboxEvent(String aggregateId, String eventType, Object payload) {
         try {
             String jsonPayload = payload != null ? objectMapper.writeValueAsString(payload) : "null";
 
-            OutboxEvent outboxEvent = OutboxEvent.builder()
+            return OutboxEvent.builder()
                     .aggregateType("Booking")
                     .aggregateId(aggregateId)
                     .eventType(eventType)
@@ -278,8 +380,6 @@ public class BookingService {
                     .createdAt(LocalDateTime.now())
                     .processed(false)
                     .build();
-
-            outboxEventRepository.save(outboxEvent);
         } catch (Exception e) {
             log.error("Failed to serialize Outbox event for booking {}", aggregateId, e);
             throw new RuntimeException("Could not create outbox event", e);
@@ -288,21 +388,127 @@ public class BookingService {
 
     @Transactional(readOnly = false)
     public void confirmBookingSaga(Long bookingId) {
-        Booking booking = getBookingWithLockById(bookingId);
+        Booking booking = lockSagaBooking(bookingId);
+        inboxDeduplicator.markProcessed(List.of(InboxDeduplicator.messageId(CAR_RESERVED, bookingId)));
+        if (!"PENDING".equals(booking.getStatus())) {
+            log.warn("Ignoring saga confirmation for booking {} in status {}", bookingId, booking.getStatus());
+            return;
+        }
         booking.setStatus("Created");
         Booking updatedBooking = bookingRepository.save(booking);
 
         saveOutboxEvent(updatedBooking.getId().toString(), "booking", new BookingEventDto(updatedBooking));
+        notifyStatusChanged(List.of(updatedBooking), "Created");
         log.info("Saga Complete: Booking {} confirmed internally.", bookingId);
     }
 
     @Transactional(readOnly = false)
     public void rejectBookingSaga(Long bookingId, String reason) {
-        Booking booking = getBookingWithLockById(bookingId);
+        Booking booking = lockSagaBooking(bookingId);
+        inboxDeduplicator.markProcessed(List.of(InboxDeduplicator.messageId(CAR_RESERVATION_FAILED, bookingId)));
+        if (!"PENDING".equals(booking.getStatus())) {
+            log.warn("Ignoring saga rejection for booking {} in status {}", bookingId, booking.getStatus());
+            return;
+        }
+        compensateSaga(booking, reason);
+        notifyStatusChanged(List.of(booking), "Cancelled");
+    }
+
+    @Transactional(readOnly = false)
+    public List<Long> expirePendingBookings(Collection<Long> bookingIds, String reason) {
+        List<Booking> bookings = bookingRepository.lockPendingSkippingLocked(bookingIds);
+        bookings.forEach(booking -> compensateSaga(booking, reason));
+        notifyStatusChanged(bookings, "Cancelled");
+        return findLockedPendingIds(bookingIds, bookings);
+    }
+
+    @Transactional(readOnly = false)
+    public List<Long> confirmBookingSagas(Collection<Long> bookingIds) {
+        List<Booking> bookings = bookingRepository.lockPendingSkippingLocked(bookingIds);
+        if (!bookings.isEmpty()) {
+            List<OutboxEvent> outboxEvents = bookings.stream()
+                    .map(booking -> {
+                        BookingEventDto bookingEvent = new BookingEventDto(booking);
+                        bookingEvent.setStatus("Created");
+                        return buildOutboxEvent(booking.getId().toString(), "booking", bookingEvent);
+                    })
+                    .toList();
+            bookingRepository.updateStatus(idsOf(bookings), "Created");
+            outboxEventRepository.saveAll(outboxEvents);
+            outboxRelayScheduler.wakeUpAfterCommit();
+            notifyStatusChanged(bookings, "Created");
+            log.info("Saga Complete: {} bookings confirmed in one batch.", bookings.size());
+        }
+        List<Long> lockedIds = findLockedPendingIds(bookingIds, bookings);
+        markSagaRepliesProcessed(CAR_RESERVED, bookingIds, lockedIds);
+        return lockedIds;
+    }
+
+    @Transactional(readOnly = false)
+    public List<Long> rejectBookingSagas(Map<Long, String> reasonsByBookingId) {
+        List<Booking> bookings = bookingRepository.lockPendingSkippingLocked(reasonsByBookingId.keySet());
+        if (!bookings.isEmpty()) {
+            List<OutboxEvent> outboxEvents = bookings.stream()
+                    .map(booking -> buildOutboxEvent(booking.getId().toString(), "booking", null))
+                    .toList();
+            List<Long> bookingIds = idsOf(bookings);
+            bookingRepository.updateStatus(bookingIds, "Cancelled");
+            bookingIds.forEach(bookingIntervalIndex::release);
+            outboxEventRepository.saveAll(outboxEvents);
+            outboxRelayScheduler.wakeUpAfterCommit();
+            notifyStatusChanged(bookings, "Cancelled");
+            bookings.forEach(booking -> log.warn("Saga Compensated: Booking {} rejected. Reason: {}",
+                    booking.getId(), reasonsByBookingId.get(booking.getId())));
+        }
+        List<Long> lockedIds = findLockedPendingIds(reasonsByBookingId.keySet(), bookings);
+        markSagaRepliesProcessed(CAR_RESERVATION_FAILED, reasonsByBookingId.keySet(), lockedIds);
+        return lockedIds;
+    }
+
+    private void markSagaRepliesProcessed(String eventType, Collection<Long> bookingIds, List<Long> lockedIds) {
+        Set<Long> skippedIds = new HashSet<>(lockedIds);
+        inboxDeduplicator.markProcessed(bookingIds.stream()
+                .filter(id -> !skippedIds.contains(id))
+                .map(id -> InboxDeduplicator.messageId(eventType, id))
+                .toList());
+    }
+
+    private void notifyStatusChanged(List<Booking> bookings, String status) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        bookingRepository.notifyStatusChanged(bookings.stream()
+                .map(booking -> new BookingStatusChangedEvent(booking.getId(), booking.getUserView().getName(), status))
+                .toList());
+    }
+
+    private List<Long> idsOf(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .toList();
+    }
+
+    private List<Long> findLockedPendingIds(Collection<Long> requestedIds, List<Booking> processedBookings) {
+        Set<Long> processedIds = new HashSet<>(idsOf(processedBookings));
+        List<Long> remainingIds = requestedIds.stream()
+                .filter(id -> !processedIds.contains(id))
+                .toList();
+        return remainingIds.isEmpty() ? List.of() : bookingRepository.findPendingIds(remainingIds);
+    }
+
+    private Booking lockSagaBooking(Long bookingId) {
+        return bookingRepository.findAndLockById(bookingId).orElseThrow(() -> {
+            log.warn("Booking with id {} not found", bookingId);
+            return new ResourceNotFoundException("Booking", "id", bookingId);
+        });
+    }
+
+    private void compensateSaga(Booking booking, String reason) {
         booking.setStatus("Cancelled");
         Booking updatedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.release(updatedBooking.getId());
 
         saveOutboxEvent(updatedBooking.getId().toString(), "booking", null);
-        log.warn("Saga Compensated: Booking {} rejected. Reason: {}", bookingId, reason);
+        log.warn("Saga Compensated: Booking {} rejected. Reason: {}", updatedBooking.getId(), reason);
     }
-}
\ No newline at end of file
+}
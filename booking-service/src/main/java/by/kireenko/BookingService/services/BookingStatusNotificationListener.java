@@ -0,0 +1,55 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import by.kireenko.BookingService.repositories.BookingStatusNotificationRepository;
+import by.kireenko.DatasourceCommon.notify.PgNotificationListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.status-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingStatusNotificationListener {
+    private final DataSourceProperties dataSourceProperties;
+    private final BookingStatusStream bookingStatusStream;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.status-stream.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+    @Value("${booking.status-stream.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private PgNotificationListener listener;
+
+    @PostConstruct
+    public void start() {
+        listener = new PgNotificationListener(dataSourceProperties, BookingStatusNotificationRepository.CHANNEL,
+                Duration.ofMillis(pollTimeoutMs), Duration.ofMillis(reconnectDelayMs), () -> {
+                }, this::publish);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        listener.stop();
+    }
+
+    private void publish(String payload) {
+        try {
+            bookingStatusStream.publish(objectMapper.readValue(payload, BookingStatusChangedEvent.class));
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed booking status notification: {}", payload, e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Slf4j
+@Service
+public class BookingStatusStream {
+    private final Sinks.Many<BookingStatusChangedEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    @Value("${booking.status-stream.timeout:30m}")
+    private Duration streamTimeout;
+    @Value("${booking.status-stream.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+    @Value("${booking.status-stream.buffer-size:256}")
+    private int bufferSize;
+
+    public void publish(BookingStatusChangedEvent event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Failed to publish status {} of booking {}: {}", event.getStatus(), event.getBookingId(), result);
+        }
+    }
+
+    public Flux<BookingStatusChangedEvent> updates(String username) {
+        return sink.asFlux()
+                .filter(event -> username.equals(event.getUsername()))
+                .onBackpressureBuffer(bufferSize, dropped -> log.warn("Dropped status {} of booking {} for slow subscriber {}",
+                        dropped.getStatus(), dropped.getBookingId(), username), BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Flux<SseEmitter.SseEventBuilder> events = Flux.merge(
+                updates(username).map(event -> SseEmitter.event()
+                        .id(String.valueOf(event.getBookingId()))
+                        .name("booking-status")
+                        .data(event)),
+                Flux.interval(heartbeatInterval).map(tick -> SseEmitter.event().comment("heartbeat")));
+
+        Disposable subscription = events.subscribe(event -> send(emitter, event), emitter::completeWithError);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Status stream subscriber went away: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
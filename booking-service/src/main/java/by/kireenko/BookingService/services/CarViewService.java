@@ -0,0 +1,53 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.client.CarLookupBatcher;
+import by.kireenko.BookingService.dto.CarDto;
+import by.kireenko.BookingService.repositories.CarViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CarViewService {
+    private final CarViewRepository carViewRepository;
+    private final CarLookupBatcher carLookupBatcher;
+
+    @Transactional(readOnly = true)
+    public CarDto getCarDtoById(Long id) {
+        return carViewRepository.findById(id)
+                .map(CarDto::new)
+                .orElseGet(() -> {
+                    log.warn("Car {} is missing from the local view, falling back to car-service", id);
+                    return carLookupBatcher.getCarById(id);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, CarDto> getCarDtosByIds(Collection<Long> ids) {
+        Map<Long, CarDto> carDtos = findLocalCarDtosByIds(ids);
+
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !carDtos.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            log.warn("Cars {} are missing from the local view, falling back to car-service", missingIds);
+            carDtos.putAll(carLookupBatcher.getCarsByIds(missingIds));
+        }
+        return carDtos;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, CarDto> findLocalCarDtosByIds(Collection<Long> ids) {
+        return carViewRepository.findAllById(ids).stream()
+                .map(CarDto::new)
+                .collect(Collectors.toMap(CarDto::getId, car -> car));
+    }
+}
@@ -0,0 +1,162 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.dto.BookingDto;
+import by.kireenko.BookingService.error.BookingConflictException;
+import by.kireenko.BookingService.error.IdempotencyKeyReuseException;
+import by.kireenko.BookingService.error.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers the response an Idempotency-Key produced, in Redis shared by all booking-service instances, so a retry
+ * gets the original {@link BookingDto} back without touching Postgres or Kafka. The key is claimed with
+ * {@code SET NX PX} before the action runs and replaced by the serialized response once the action has committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+    private static final String KEY_PREFIX = "booking:idempotency:";
+    private static final Pattern VALID_KEY = Pattern.compile("[\\x21-\\x7E]+");
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.idempotency.ttl:24h}")
+    private Duration ttl;
+    @Value("${booking.idempotency.in-flight-timeout-ms:30000}")
+    private long inFlightTimeoutMs;
+    @Value("${booking.idempotency.poll-interval-ms:100}")
+    private long pollIntervalMs;
+    @Value("${booking.idempotency.max-key-length:255}")
+    private int maxKeyLength;
+
+    public BookingDto execute(String scope, String idempotencyKey, Object request, Supplier<BookingDto> action) {
+        if (idempotencyKey.length() > maxKeyLength || !VALID_KEY.matcher(idempotencyKey).matches()) {
+            throw new InvalidIdempotencyKeyException(maxKeyLength);
+        }
+        String key = KEY_PREFIX + scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + Duration.ofMillis(inFlightTimeoutMs).toNanos();
+
+        while (true) {
+            String claim = toJson(new Entry(requestHash, UUID.randomUUID().toString(), null));
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(key, claim, Duration.ofMillis(inFlightTimeoutMs)))) {
+                return run(key, claim, requestHash, idempotencyKey, action);
+            }
+
+            String existing = redisTemplate.opsForValue().get(key);
+            if (existing == null) {
+                continue;
+            }
+            Entry entry = fromJson(existing);
+            if (!entry.requestHash().equals(requestHash)) {
+                throw new IdempotencyKeyReuseException(idempotencyKey);
+            }
+            if (entry.response() != null) {
+                log.info("Replaying response for Idempotency-Key {}", idempotencyKey);
+                return entry.response();
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new BookingConflictException("Request with Idempotency-Key " + idempotencyKey + " is still in progress");
+            }
+            sleep(idempotencyKey);
+        }
+    }
+
+    private BookingDto run(String key, String claim, String requestHash, String idempotencyKey,
+                           Supplier<BookingDto> action) {
+        BookingDto response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(key, claim, idempotencyKey);
+            throw e;
+        }
+
+        String completed = toJson(new Entry(requestHash, null, response));
+        try {
+            Long replaced = redisTemplate.execute(COMPLETE_SCRIPT, List.of(key), claim, completed,
+                    String.valueOf(ttl.toMillis()));
+            if (replaced == null || replaced != 1) {
+                log.warn("Idempotency-Key {} was taken over by another request after it timed out", idempotencyKey);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not store the response for Idempotency-Key {}, a retry after {} ms may repeat the booking",
+                    idempotencyKey, inFlightTimeoutMs, e);
+        }
+        return response;
+    }
+
+    private void release(String key, String claim, String idempotencyKey) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), claim);
+        } catch (RuntimeException e) {
+            log.warn("Could not release Idempotency-Key {}, it frees up after {} ms", idempotencyKey, inFlightTimeoutMs, e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be serialized for idempotency check", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotency entry", e);
+        }
+    }
+
+    private Entry fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read idempotency entry", e);
+        }
+    }
+
+    private void sleep(String idempotencyKey) {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key " + idempotencyKey, e);
+        }
+    }
+
+    /**
+     * A claim carries {@code claimId} and no response; a completed key carries the response to replay.
+     */
+    private record Entry(String requestHash, String claimId, BookingDto response) {
+    }
+}
@@ -0,0 +1,187 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.repositories.ProcessedMessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Answers "was this reply already handled" from {@code processed_messages}, skipping the lookup for ids a local
+ * Bloom filter has never seen. The filter is loaded once in the background after startup. Replies for a newly
+ * assigned partition may have been handled by its previous owner, so each assignment tops the filter up with the
+ * ids processed since the last load, again in the background. Until a load finishes, every id goes to the table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InboxDeduplicator {
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.inbox.expected-messages:1000000}")
+    private long expectedMessages;
+    @Value("${booking.inbox.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    @Value("${booking.inbox.retention:7d}")
+    private Duration retention;
+    @Value("${booking.inbox.catch-up-overlap:5m}")
+    private Duration catchUpOverlap;
+
+    private final ExecutorService loadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inbox-bloom-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Lock lock = new ReentrantLock();
+    private volatile MessageIdBloomFilter bloomFilter;
+    private MessageIdBloomFilter currentFilter;
+    private LocalDateTime loadedUntil;
+    private long generation;
+
+    public static String messageId(String eventType, Long bookingId) {
+        return eventType + ":" + bookingId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleLoad(true);
+    }
+
+    public void onPartitionsAssigned() {
+        scheduleLoad(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loadExecutor.shutdownNow();
+    }
+
+    public Set<String> findProcessed(Collection<String> messageIds) {
+        MessageIdBloomFilter filter = bloomFilter;
+        List<String> candidates = messageIds.stream()
+                .filter(messageId -> filter == null || filter.mightContain(messageId))
+                .distinct()
+                .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(processedMessageRepository.findExistingIds(candidates));
+    }
+
+    public void markProcessed(Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        processedMessageRepository.insertIgnoringDuplicates(messageIds);
+        List<String> committedIds = List.copyOf(messageIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(committedIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(committedIds);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${booking.inbox.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = processedMessageRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        scheduleLoad(true);
+        log.info("Purged {} processed message markers older than {}", deleted, retention);
+    }
+
+    private void remember(Collection<String> messageIds) {
+        lock.lock();
+        try {
+            if (currentFilter != null) {
+                messageIds.forEach(currentFilter::put);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A full load starts a fresh filter from everything within retention; a catch-up adds the ids processed since
+     * the previous load, reaching back {@code catchUpOverlap} for transactions that committed late.
+     */
+    private void scheduleLoad(boolean full) {
+        MessageIdBloomFilter filter;
+        LocalDateTime since;
+        long loadGeneration;
+        lock.lock();
+        try {
+            loadGeneration = ++generation;
+            bloomFilter = null;
+            if (full || currentFilter == null || loadedUntil == null) {
+                if (full || currentFilter == null) {
+                    currentFilter = new MessageIdBloomFilter(expectedMessages, falsePositiveRate);
+                }
+                since = LocalDateTime.now().minus(retention);
+            } else {
+                since = loadedUntil.minus(catchUpOverlap);
+            }
+            filter = currentFilter;
+        } finally {
+            lock.unlock();
+        }
+        loadExecutor.execute(() -> load(loadGeneration, filter, since));
+    }
+
+    private void load(long loadGeneration, MessageIdBloomFilter filter, LocalDateTime since) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> {
+                try (Stream<String> ids = processedMessageRepository.streamIdsProcessedSince(
+                        since, Limit.of((int) Math.min(expectedMessages, Integer.MAX_VALUE)))) {
+                    return ids.mapToLong(messageId -> {
+                        filter.put(messageId);
+                        return 1;
+                    }).sum();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Inbox bloom filter could not be loaded, checking every message id against the table", e);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (currentFilter == filter && (loadedUntil == null || loadedUntil.isBefore(startedAt))) {
+                loadedUntil = startedAt;
+            }
+            if (generation == loadGeneration) {
+                bloomFilter = filter;
+                log.info("Inbox bloom filter loaded with {} message ids processed since {}", loaded, since);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.client.CarServiceClient;
+import by.kireenko.BookingService.dto.BookingDto;
+import by.kireenko.BookingService.dto.BookingPageDto;
+import by.kireenko.BookingService.dto.BookingSummaryDto;
+import by.kireenko.BookingService.dto.CarDto;
+import by.kireenko.BookingService.models.Booking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveBookingService {
+    private final BookingService bookingService;
+    private final CarViewService carViewService;
+    private final CarServiceClient carServiceClient;
+    private final Scheduler jdbcScheduler;
+
+    public Mono<BookingDto> getBookingDtoById(Long id) {
+        ServletRequestAttributes request = currentRequest();
+        return onJdbcScheduler(() -> bookingService.getBookingById(id), request)
+                .flatMap(booking -> resolveCars(List.of(booking.getCarId()), request)
+                        .map(carDtoMap -> new BookingDto(booking, carDtoMap.get(booking.getCarId()))));
+    }
+
+    public Mono<BookingPageDto> getAllBookingsDto(String cursor, Integer size) {
+        int pageSize = bookingService.resolvePageSize(size);
+        ServletRequestAttributes request = currentRequest();
+        return onJdbcScheduler(() -> bookingService.findAllBookingsPage(cursor, pageSize), request)
+                .flatMap(bookings -> toBookingPage(bookings, pageSize, request));
+    }
+
+    public Mono<BookingPageDto> getCurrentUserBookingsDto(String cursor, Integer size) {
+        int pageSize = bookingService.resolvePageSize(size);
+        ServletRequestAttributes request = currentRequest();
+        return onJdbcScheduler(() -> bookingService.findCurrentUserBookingsPage(cursor, pageSize), request)
+                .flatMap(bookings -> toBookingPage(bookings, pageSize, request));
+    }
+
+    private Mono<BookingPageDto> toBookingPage(List<BookingSummaryDto> bookings, int pageSize,
+                                               ServletRequestAttributes request) {
+        return resolveCars(bookingService.carIdsOf(bookings, pageSize), request)
+                .map(carDtoMap -> bookingService.toBookingPage(bookings, pageSize, carDtoMap));
+    }
+
+    private Mono<Map<Long, CarDto>> resolveCars(List<Long> carIds, ServletRequestAttributes request) {
+        if (carIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return onJdbcScheduler(() -> carViewService.findLocalCarDtosByIds(carIds), request)
+                .flatMap(localCars -> {
+                    List<Long> missingIds = carIds.stream()
+                            .filter(id -> !localCars.containsKey(id))
+                            .toList();
+                    if (missingIds.isEmpty()) {
+                        return Mono.just(localCars);
+                    }
+                    log.warn("Cars {} are missing from the local view, falling back to car-service", missingIds);
+                    String authorization = authorizationOf(request);
+                    Mono<List<CarDto>> remoteCars = missingIds.size() == 1
+                            ? carServiceClient.fetchCarById(missingIds.get(0), authorization).map(List::of)
+                            : carServiceClient.fetchCarsByIds(missingIds, authorization);
+                    return remoteCars
+                            .defaultIfEmpty(List.of())
+                            .map(cars -> {
+                                Map<Long, CarDto> carDtoMap = new HashMap<>(localCars);
+                                cars.forEach(car -> carDtoMap.put(car.getId(), car));
+                                return carDtoMap;
+                            });
+                });
+    }
+
+    /**
+     * Runs the callable on the JDBC scheduler with the caller's security context and servlet request bound, so
+     * request-scoped memoization such as the current user view applies there too. The request is bound through
+     * fresh {@link ServletRequestAttributes}, because the caller's are marked completed once the async dispatch
+     * starts.
+     */
+    private <T> Mono<T> onJdbcScheduler(Callable<T> callable, ServletRequestAttributes request) {
+        Callable<T> withRequest = request == null ? callable : () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(
+                    new ServletRequestAttributes(request.getRequest(), request.getResponse()));
+            try {
+                return callable.call();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+        return Mono.fromCallable(new DelegatingSecurityContextCallable<>(withRequest))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    private ServletRequestAttributes currentRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes;
+        }
+        return null;
+    }
+
+    private String authorizationOf(ServletRequestAttributes request) {
+        return request == null ? null : request.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+    }
+}
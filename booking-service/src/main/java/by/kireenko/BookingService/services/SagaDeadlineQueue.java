@@ -0,0 +1,91 @@
+package by.kireenko.BookingService.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class SagaDeadlineQueue {
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private final Set<Long> queuedBookingIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${booking.saga.timeout:10m}")
+    private Duration timeout;
+    @Value("${booking.saga.retry-delay:5s}")
+    private Duration retryDelay;
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void register(Long bookingId, LocalDateTime createdAt) {
+        LocalDateTime start = createdAt != null ? createdAt : LocalDateTime.now();
+        enqueue(bookingId, start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + timeout.toMillis());
+    }
+
+    public void registerAfterCommit(Long bookingId, LocalDateTime createdAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(bookingId, createdAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(bookingId, createdAt);
+            }
+        });
+    }
+
+    public void retryLater(Collection<Long> bookingIds) {
+        long dueAt = System.currentTimeMillis() + retryDelay.toMillis();
+        bookingIds.forEach(bookingId -> enqueue(bookingId, dueAt));
+    }
+
+    public List<Long> pollExpired(int maxSize) {
+        List<Deadline> expired = new ArrayList<>(maxSize);
+        deadlines.drainTo(expired, maxSize);
+        List<Long> bookingIds = new ArrayList<>(expired.size());
+        for (Deadline deadline : expired) {
+            queuedBookingIds.remove(deadline.bookingId());
+            bookingIds.add(deadline.bookingId());
+        }
+        return bookingIds;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    private void enqueue(Long bookingId, long dueAtMillis) {
+        if (queuedBookingIds.add(bookingId)) {
+            deadlines.put(new Deadline(bookingId, dueAtMillis));
+        }
+    }
+
+    private record Deadline(Long bookingId, long dueAtMillis) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Deadline) other).dueAtMillis);
+        }
+    }
+}
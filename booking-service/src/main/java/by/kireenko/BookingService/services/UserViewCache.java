@@ -0,0 +1,120 @@
+package by.kireenko.BookingService.services;
+
+import by.kireenko.BookingService.models.UserView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+@Component
+public class UserViewCache {
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedUserView> viewsByName = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, String> namesById = new HashMap<>();
+    private long generation;
+
+    @Value("${booking.user-view-cache.max-size:10000}")
+    private int maxSize;
+    @Value("${booking.user-view-cache.ttl:60s}")
+    private Duration ttl;
+
+    public Optional<UserView> getOrLoad(String name, Function<String, Optional<UserView>> loader) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            CachedUserView cached = viewsByName.get(name);
+            if (cached != null && cached.expiresAt() > System.nanoTime()) {
+                return Optional.of(cached.view());
+            }
+            if (cached != null) {
+                remove(name);
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Optional<UserView> loaded = loader.apply(name);
+        loaded.ifPresent(view -> put(name, view, loadGeneration));
+        return loaded;
+    }
+
+    public void invalidate(Collection<Long> userIds, Collection<String> names) {
+        lock.lock();
+        try {
+            generation++;
+            userIds.forEach(userId -> {
+                String name = namesById.get(userId);
+                if (name != null) {
+                    remove(name);
+                }
+            });
+            names.forEach(this::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAfterCommit(Collection<Long> userIds, Collection<String> names) {
+        invalidate(userIds, names);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<Long> pendingIds = List.copyOf(userIds);
+        List<String> pendingNames = List.copyOf(names);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(pendingIds, pendingNames);
+            }
+        });
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return viewsByName.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String name, UserView view, long loadGeneration) {
+        lock.lock();
+        try {
+            if (loadGeneration != generation) {
+                return;
+            }
+            String previousName = namesById.put(view.getId(), name);
+            if (previousName != null && !previousName.equals(name)) {
+                viewsByName.remove(previousName);
+            }
+            UserView detached = new UserView(view.getId(), view.getName(), view.getEmail(), view.getPhoneNumber());
+            viewsByName.put(name, new CachedUserView(detached, System.nanoTime() + ttl.toNanos()));
+            Iterator<Map.Entry<String, CachedUserView>> eldest = viewsByName.entrySet().iterator();
+            while (viewsByName.size() > maxSize && eldest.hasNext()) {
+                Map.Entry<String, CachedUserView> entry = eldest.next();
+                eldest.remove();
+                namesById.remove(entry.getValue().view().getId(), entry.getKey());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String name) {
+        CachedUserView removed = viewsByName.remove(name);
+        if (removed != null) {
+            namesById.remove(removed.view().getId(), name);
+        }
+    }
+
+    private record CachedUserView(UserView view, long expiresAt) {
+    }
+}
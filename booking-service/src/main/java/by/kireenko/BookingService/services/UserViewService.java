@@ -1,46 +1,97 @@
 package by.kireenko.BookingService.services;
 
+import by.kireenko.BookingService.dto.UserDto;
 import by.kireenko.BookingService.error.ResourceNotFoundException;
 import by.kireenko.BookingService.models.UserView;
 import by.kireenko.BookingService.repositories.UserViewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserViewService {
+    private static final String CURRENT_USER_VIEW_ATTRIBUTE = UserViewService.class.getName() + ".currentUserView";
+
     private final UserViewRepository userViewRepository;
+    private final UserViewCache userViewCache;
 
     @Transactional(readOnly = true)
     public UserView getCurrentUserView() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        if (!(authentication instanceof AnonymousAuthenticationToken)) {
-
-        }
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new IllegalStateException("User is not authenticated.");
         }
 
         String name = authentication.getName();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CURRENT_USER_VIEW_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UserView memoized
+                && name.equals(memoized.getName())) {
+            return memoized;
+        }
 
-        return userViewRepository.findByName(name).orElseThrow(() -> {
-            log.warn("User with name {} not found", name);
-            return new ResourceNotFoundException("User", "name", name);
-        });
+        UserView userView = getUserViewByName(name);
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_VIEW_ATTRIBUTE, userView, RequestAttributes.SCOPE_REQUEST);
+        }
+        return userView;
     }
 
     @Transactional(readOnly = true)
     public UserView getUserViewByName(String name) {
-        return userViewRepository.findByName(name).orElseThrow(() -> {
+        return userViewCache.getOrLoad(name, userViewRepository::findByName).orElseThrow(() -> {
             log.warn("User with name {} not found", name);
             return new ResourceNotFoundException("User", "name", name);
         });
     }
+
+    @Transactional
+    public void applyUserEvents(Map<Long, UserDto> latestByUserId) {
+        List<UserView> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        latestByUserId.forEach((userId, userDto) -> {
+            if (userDto == null) {
+                deletes.add(userId);
+            } else {
+                upserts.add(toUserView(userId, userDto));
+            }
+        });
+
+        if (!upserts.isEmpty()) {
+            userViewRepository.upsertAll(upserts);
+        }
+        if (!deletes.isEmpty()) {
+            userViewRepository.deleteAllByIdInBatch(deletes);
+        }
+        userViewCache.invalidateAfterCommit(latestByUserId.keySet(),
+                upserts.stream().map(UserView::getName).toList());
+        log.info("Applied user events batch: {} upserted, {} deleted", upserts.size(), deletes.size());
+    }
+
+    @Transactional
+    public void applyUserEvent(Long userId, UserDto userDto) {
+        userViewCache.invalidateAfterCommit(List.of(userId),
+                userDto != null && userDto.getName() != null ? List.of(userDto.getName()) : List.of());
+        if (userDto == null) {
+            userViewRepository.deleteById(userId);
+        } else {
+            userViewRepository.save(toUserView(userId, userDto));
+        }
+    }
+
+    private UserView toUserView(Long userId, UserDto userDto) {
+        return new UserView(userId, userDto.getName(), userDto.getEmail(), userDto.getPhoneNumber());
+    }
 }
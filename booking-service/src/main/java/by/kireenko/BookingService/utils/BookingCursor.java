@@ -0,0 +1,30 @@
+package by.kireenko.BookingService.utils;
+
+import by.kireenko.BookingService.error.NotValidResourceState;
+import by.kireenko.BookingService.dto.BookingSummaryDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record BookingCursor(LocalDateTime createdAt, Long id) {
+
+    public static BookingCursor of(BookingSummaryDto booking) {
+        return new BookingCursor(booking.getCreatedAt(), booking.getId());
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new NotValidResourceState("Page", "cursor", cursor, "cursor returned by a previous page");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
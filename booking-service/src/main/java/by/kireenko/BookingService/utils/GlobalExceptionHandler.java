@@ -41,6 +41,33 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ProblemDetail handleBookingConflictException(BookingConflictException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        problemDetail.setType(URI.create("https://api.carbooking.by/errors/booking-conflict"));
+        problemDetail.setTitle("Booking Conflict");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ProblemDetail handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+        problemDetail.setType(URI.create("https://api.carbooking.by/errors/idempotency-key-reuse"));
+        problemDetail.setTitle("Idempotency Key Reuse");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ProblemDetail handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setType(URI.create("https://api.carbooking.by/errors/invalid-idempotency-key"));
+        problemDetail.setTitle("Invalid Idempotency Key");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
     @ExceptionHandler(MismatchedPasswordsException.class)
     public ProblemDetail handleMismatchedPasswordException(MismatchedPasswordsException ex) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED, ex.getMessage());
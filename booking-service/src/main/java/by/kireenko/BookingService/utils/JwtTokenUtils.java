@@ -1,53 +0,0 @@
-package by.kireenko.BookingService.utils;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.stereotype.Component;
-
-import java.time.Duration;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
-@Component
-public class JwtTokenUtils {
-
-    @Value("${JWT_SECRET}")
-    private String secret;
-    private final Duration jwtLifetime = Duration.ofMinutes(30);
-
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        List<String> roles = userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
-        claims.put("roles", roles);
-        Date issuedDate = new Date();
-        Date expiriedDate = new Date(issuedDate.getTime() + jwtLifetime.toMillis());
-
-        return Jwts.builder().setClaims(claims)
-                .setSubject(userDetails.getUsername()).setIssuedAt(issuedDate).setExpiration(expiriedDate)
-                .signWith(SignatureAlgorithm.HS256, secret).compact();
-    }
-
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
-    }
-
-    public List<String> getRolesFromToken(String token) {
-        return getClaimsFromToken(token).get("roles", List.class);
-    }
-}
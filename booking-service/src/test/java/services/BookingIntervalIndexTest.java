@@ -0,0 +1,118 @@
+package services;
+
+import by.kireenko.BookingService.dto.BookingIntervalDto;
+import by.kireenko.BookingService.error.BookingConflictException;
+import by.kireenko.BookingService.repositories.BookingRepository;
+import by.kireenko.BookingService.services.BookingIntervalIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    public void setUp() {
+        when(bookingRepository.findByStatusInAndEndDateGreaterThanEqual(any(), any())).thenReturn(List.of(
+                new BookingIntervalDto(1L, 7L, today.plusDays(2), today.plusDays(5)),
+                new BookingIntervalDto(2L, 7L, today.plusDays(10), today.plusDays(12))
+        ));
+        bookingIntervalIndex.warmUp();
+    }
+
+    @Test
+    public void assertAvailable_WhenRangeOverlapsWarmedBooking_ShouldThrowConflict() {
+        when(bookingRepository.existsOverlapping(eq(7L), any(), any(), any())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(4), today.plusDays(8)));
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.assertAvailable(7L, today, today.plusDays(20)));
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(12), today.plusDays(12)));
+    }
+
+    @Test
+    public void reserve_WhenRangeFitsBetweenBookings_ShouldSucceedAndBlockTheWindow() {
+        assertThatCode(() -> bookingIntervalIndex.reserve(3L, 7L, today.plusDays(6), today.plusDays(9)))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(8L, today.plusDays(6), today.plusDays(9)))
+                .doesNotThrowAnyException();
+
+        when(bookingRepository.existsOverlapping(7L, 4L,
+                today.plusDays(9), today.plusDays(9))).thenReturn(true);
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.reserve(4L, 7L, today.plusDays(9), today.plusDays(9)));
+        verify(bookingRepository, times(2)).lockCarBookings(7L);
+    }
+
+    @Test
+    public void reschedule_ShouldIgnoreOwnIntervalAndFreeThePreviousWindow() {
+        bookingIntervalIndex.reschedule(1L, 7L, today.plusDays(3), today.plusDays(8));
+
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(1), today.plusDays(2)))
+                .doesNotThrowAnyException();
+        when(bookingRepository.existsOverlapping(7L, 1L,
+                today.plusDays(8), today.plusDays(10))).thenReturn(true);
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.reschedule(1L, 7L, today.plusDays(8), today.plusDays(10)));
+        when(bookingRepository.existsOverlapping(7L, -1L,
+                today.plusDays(7), today.plusDays(7))).thenReturn(true);
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(7), today.plusDays(7)));
+    }
+
+    @Test
+    public void release_ShouldMakeTheWindowAvailableAgain() {
+        bookingIntervalIndex.release(2L);
+
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(9), today.plusDays(15)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    public void reserve_WhenAnotherInstanceBookedTheWindow_ShouldRejectFromDatabase() {
+        when(bookingRepository.existsOverlapping(9L, 5L,
+                today.plusDays(1), today.plusDays(3))).thenReturn(true);
+
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(9L, today.plusDays(1), today.plusDays(3)))
+                .doesNotThrowAnyException();
+        assertThrows(BookingConflictException.class,
+                () -> bookingIntervalIndex.reserve(5L, 9L, today.plusDays(1), today.plusDays(3)));
+    }
+
+    @Test
+    public void reserve_WhenLocalEntryIsStale_ShouldFollowTheDatabaseAndEvictIt() {
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(3), today.plusDays(4)))
+                .doesNotThrowAnyException();
+        bookingIntervalIndex.reserve(6L, 7L, today.plusDays(3), today.plusDays(4));
+
+        assertThatCode(() -> bookingIntervalIndex.assertAvailable(7L, today.plusDays(2), today.plusDays(2)))
+                .doesNotThrowAnyException();
+        verify(bookingRepository, never()).existsOverlapping(7L, -1L,
+                today.plusDays(2), today.plusDays(2));
+    }
+}
@@ -0,0 +1,114 @@
+package services;
+
+import by.kireenko.BookingService.dto.BookingSummaryDto;
+import by.kireenko.BookingService.models.Booking;
+import by.kireenko.BookingService.models.UserView;
+import by.kireenko.BookingService.repositories.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.cloud.vault.enabled=false",
+        "spring.liquibase.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:bookings;MODE=PostgreSQL;NON_KEYWORDS=YEAR",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = BookingRepositoryQueryCountTest.JpaConfig.class)
+public class BookingRepositoryQueryCountTest {
+    private static final int USERS = 3;
+    private static final int BOOKINGS_PER_USER = 4;
+
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private TestEntityManager testEntityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+    private Long firstUserId;
+
+    @BeforeEach
+    public void setUp() {
+        for (long userId = 1; userId <= USERS; userId++) {
+            UserView user = testEntityManager.persist(
+                    new UserView(userId, "user" + userId, "user" + userId + "@mail.com", "+37529000000" + userId));
+            for (int i = 0; i < BOOKINGS_PER_USER; i++) {
+                Booking booking = new Booking();
+                booking.setCarId(10L + i);
+                booking.setUserView(user);
+                booking.setStartDate(LocalDate.now().plusDays(i));
+                booking.setEndDate(LocalDate.now().plusDays(i + 1));
+                booking.setStatus("CONFIRMED");
+                testEntityManager.persist(booking);
+            }
+        }
+        firstUserId = 1L;
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        queryCounter = new QueryCounter(entityManagerFactory);
+        queryCounter.reset();
+    }
+
+    @Test
+    public void findFirstPage_ShouldSelectSummariesInOneStatementWithoutHydratingEntities() {
+        List<BookingSummaryDto> page = bookingRepository.findFirstPage(Limit.of(USERS * BOOKINGS_PER_USER));
+
+        assertThat(page).hasSize(USERS * BOOKINGS_PER_USER);
+        assertThat(page).allSatisfy(row -> assertThat(row.getUserEmail()).endsWith("@mail.com"));
+        queryCounter.assertStatements(1).assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void findPageByUserViewIdAfter_ShouldSelectSummariesInOneStatement() {
+        BookingSummaryDto newest = bookingRepository.findFirstPageByUserViewId(firstUserId, Limit.of(1)).get(0);
+        queryCounter.reset();
+
+        List<BookingSummaryDto> rest = bookingRepository.findPageByUserViewIdAfter(
+                firstUserId, newest.getCreatedAt(), newest.getId(), Limit.of(BOOKINGS_PER_USER));
+
+        assertThat(rest).hasSize(BOOKINGS_PER_USER - 1).allSatisfy(row -> assertThat(row.getUserId()).isEqualTo(firstUserId));
+        queryCounter.assertStatements(1).assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void streamAllForExport_ShouldStreamSummariesInOneStatement() {
+        try (Stream<BookingSummaryDto> bookings = bookingRepository.streamAllForExport()) {
+            assertThat(bookings.count()).isEqualTo(USERS * BOOKINGS_PER_USER);
+        }
+        queryCounter.assertStatements(1).assertNoEntitiesLoaded();
+    }
+
+    @Test
+    public void findAll_WithEagerUserView_ShouldIssueOneExtraSelectPerUser() {
+        assertThat(bookingRepository.findAll()).hasSize(USERS * BOOKINGS_PER_USER);
+
+        queryCounter.assertStatements(1 + USERS);
+    }
+
+    @Configuration
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @EntityScan(basePackageClasses = Booking.class)
+    @EnableJpaRepositories(basePackageClasses = BookingRepository.class)
+    static class JpaConfig {
+    }
+}
@@ -1,31 +1,52 @@
 package services;
 
 import by.kireenko.BookingService.client.CarServiceClient;
+import by.kireenko.BookingService.dto.BookingPageDto;
+import by.kireenko.BookingService.dto.BookingSummaryDto;
 import by.kireenko.BookingService.dto.CarDto;
 import by.kireenko.BookingService.dto.CreateBookingRequestDto;
 import by.kireenko.BookingService.dto.event.BookingRequestedEvent;
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import by.kireenko.BookingService.error.BookingConflictException;
 import by.kireenko.BookingService.error.NotValidResourceState;
 import by.kireenko.BookingService.kafka.BookingEventPublisher;
+import by.kireenko.BookingService.kafka.OutboxRelayScheduler;
 import by.kireenko.BookingService.models.Booking;
+import by.kireenko.BookingService.models.OutboxEvent;
 import by.kireenko.BookingService.models.UserView;
 import by.kireenko.BookingService.repositories.BookingRepository;
+import by.kireenko.BookingService.repositories.OutboxEventRepository;
+import by.kireenko.BookingService.services.BookingIntervalIndex;
 import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.CarViewService;
+import by.kireenko.BookingService.services.InboxDeduplicator;
+import by.kireenko.BookingService.services.SagaDeadlineQueue;
 import by.kireenko.BookingService.services.UserViewService;
+import by.kireenko.BookingService.utils.BookingCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -39,6 +60,13 @@ public class BookingServiceTest {
     @Mock private UserViewService userViewService;
     @Mock private CarServiceClient carServiceClient;
     @Mock private BookingEventPublisher bookingEventPublisher;
+    @Mock private BookingIntervalIndex bookingIntervalIndex;
+    @Mock private CarViewService carViewService;
+    @Mock private OutboxRelayScheduler outboxRelayScheduler;
+    @Mock private SagaDeadlineQueue sagaDeadlineQueue;
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private InboxDeduplicator inboxDeduplicator;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
@@ -116,7 +144,174 @@ public class BookingServiceTest {
         assertThat(result.getStatus()).isEqualTo("PENDING");
 
         verify(bookingRepository).save(any(Booking.class));
+        verify(bookingIntervalIndex).reserve(100L, carId, request.getStartDate(), request.getEndDate());
         verify(bookingEventPublisher).sendBookingRequestedEvent(any(BookingRequestedEvent.class));
+        verify(outboxEventRepository).save(argThat((OutboxEvent event) -> "booking".equals(event.getEventType())
+                && event.getPayload().contains("\"status\":\"PENDING\"")));
         verifyNoInteractions(carServiceClient);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createBookingWithCheck_WhenDatesOverlap_ShouldThrowConflictWithoutSaving() {
+        CreateBookingRequestDto request = new CreateBookingRequestDto();
+        request.setCarId(1L);
+        request.setStartDate(LocalDate.now());
+        request.setEndDate(LocalDate.now().plusDays(2));
+
+        doThrow(new BookingConflictException(1L, request.getStartDate(), request.getEndDate()))
+                .when(bookingIntervalIndex).assertAvailable(1L, request.getStartDate(), request.getEndDate());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.createBookingWithCheck(request));
+
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingEventPublisher);
+    }
+
+    @Test
+    public void createBookingWithCheck_WhenEndDateBeforeStartDate_ShouldThrowException() {
+        CreateBookingRequestDto request = new CreateBookingRequestDto();
+        request.setCarId(1L);
+        request.setStartDate(LocalDate.now().plusDays(3));
+        request.setEndDate(LocalDate.now());
+
+        assertThrows(NotValidResourceState.class, () -> bookingService.createBookingWithCheck(request));
+
+        verifyNoInteractions(bookingRepository, bookingIntervalIndex);
+    }
+
+    @Test
+    public void getAllBookingsDto_WhenMoreRowsThanPageSize_ShouldReturnPageWithNextCursor() {
+        ReflectionTestUtils.setField(bookingService, "maxPageSize", 100);
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingSummaryDto> rows = List.of(summary(30L, 5L, user, now), summary(29L, 6L, user, now.minusMinutes(1)),
+                summary(28L, 5L, user, now.minusMinutes(2)));
+
+        when(bookingRepository.findPageAfter(now.plusMinutes(1), 31L, Limit.of(3))).thenReturn(rows);
+        when(carViewService.getCarDtosByIds(List.of(5L, 6L))).thenReturn(Map.of(
+                5L, new CarDto(5L, "Toyota", "Camry", 2022, 55.5, "Available"),
+                6L, new CarDto(6L, "Ford", "Focus", 2021, 50.0, "Available")));
+
+        String cursor = new BookingCursor(now.plusMinutes(1), 31L).encode();
+        BookingPageDto page = bookingService.getAllBookingsDto(cursor, 2);
+
+        assertThat(page.getBookings()).extracting("id").containsExactly(30L, 29L);
+        assertThat(page.getBookings().get(1).getCar().getBrand()).isEqualTo("Ford");
+        assertThat(BookingCursor.decode(page.getNextCursor())).isEqualTo(new BookingCursor(now.minusMinutes(1), 29L));
+    }
+
+    @Test
+    public void getAllBookingsDto_WhenCursorIsMalformed_ShouldThrowException() {
+        assertThrows(NotValidResourceState.class, () -> bookingService.getAllBookingsDto("not-a-cursor", 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    public void exportBookings_ShouldWriteOneJsonLinePerBookingEnrichingCarsPerChunk() throws Exception {
+        ReflectionTestUtils.setField(bookingService, "exportChunkSize", 2);
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        LocalDateTime now = LocalDateTime.now();
+
+        when(bookingRepository.streamAllForExport()).thenReturn(Stream.of(summary(1L, 5L, user, now),
+                summary(2L, 5L, user, now), summary(3L, 6L, user, now)));
+        when(carViewService.getCarDtosByIds(List.of(5L)))
+                .thenReturn(Map.of(5L, new CarDto(5L, "Toyota", "Camry", 2022, 55.5, "Available")));
+        when(carViewService.getCarDtosByIds(List.of(6L)))
+                .thenReturn(Map.of(6L, new CarDto(6L, "Ford", "Focus", 2021, 50.0, "Available")));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bookingService.exportBookings(outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).contains("\"id\":3").contains("\"brand\":\"Ford\"").contains("\"email\":\"mail\"");
+    }
+
+    @Test
+    public void expirePendingBookings_ShouldCancelLockedRowsAndReturnStillPendingOnes() {
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        Booking pending = booking(1L, 5L, user, LocalDateTime.now().minusMinutes(11));
+        pending.setStatus("PENDING");
+        when(bookingRepository.lockPendingSkippingLocked(List.of(1L, 2L, 3L))).thenReturn(List.of(pending));
+        when(bookingRepository.save(pending)).thenReturn(pending);
+        when(bookingRepository.findPendingIds(List.of(2L, 3L))).thenReturn(List.of(2L));
+
+        List<Long> lockedIds = bookingService.expirePendingBookings(List.of(1L, 2L, 3L), "timeout");
+
+        assertThat(lockedIds).containsExactly(2L);
+        assertThat(pending.getStatus()).isEqualTo("Cancelled");
+        verify(bookingIntervalIndex).release(1L);
+        verify(outboxEventRepository).save(any(OutboxEvent.class));
+    }
+
+    @Test
+    public void confirmBookingSagas_ShouldUpdateStatusInBulkAndInsertOutboxBatch() {
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        Booking first = booking(1L, 5L, user, LocalDateTime.now());
+        Booking second = booking(2L, 6L, user, LocalDateTime.now());
+        first.setStatus("PENDING");
+        second.setStatus("PENDING");
+        when(bookingRepository.lockPendingSkippingLocked(List.of(1L, 2L, 3L))).thenReturn(List.of(first, second));
+        when(bookingRepository.findPendingIds(List.of(3L))).thenReturn(List.of(3L));
+
+        List<Long> lockedIds = bookingService.confirmBookingSagas(List.of(1L, 2L, 3L));
+
+        assertThat(lockedIds).containsExactly(3L);
+        verify(bookingRepository).updateStatus(List.of(1L, 2L), "Created");
+        verify(outboxEventRepository).saveAll(argThat((List<OutboxEvent> events) -> events.size() == 2
+                && events.stream().allMatch(event -> event.getPayload().contains("\"status\":\"Created\""))));
+        verify(outboxEventRepository, never()).save(any());
+        verify(bookingRepository, never()).save(any());
+        verify(outboxRelayScheduler).wakeUpAfterCommit();
+        verify(inboxDeduplicator).markProcessed(List.of("carReserved:1", "carReserved:2"));
+        verify(bookingRepository).notifyStatusChanged(List.of(new BookingStatusChangedEvent(1L, "user", "Created"),
+                new BookingStatusChangedEvent(2L, "user", "Created")));
+    }
+
+    @Test
+    public void rejectBookingSagas_ShouldCancelInBulkAndReleaseIntervals() {
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        Booking pending = booking(1L, 5L, user, LocalDateTime.now());
+        pending.setStatus("PENDING");
+        Map<Long, String> reasons = Map.of(1L, "car unavailable");
+        when(bookingRepository.lockPendingSkippingLocked(reasons.keySet())).thenReturn(List.of(pending));
+
+        List<Long> lockedIds = bookingService.rejectBookingSagas(reasons);
+
+        assertThat(lockedIds).isEmpty();
+        verify(bookingRepository).updateStatus(List.of(1L), "Cancelled");
+        verify(bookingIntervalIndex).release(1L);
+        verify(outboxEventRepository).saveAll(argThat((List<OutboxEvent> events) -> events.size() == 1
+                && "null".equals(events.get(0).getPayload())));
+        verify(bookingRepository).notifyStatusChanged(List.of(new BookingStatusChangedEvent(1L, "user", "Cancelled")));
+        verify(bookingRepository, never()).findPendingIds(any());
+    }
+
+    @Test
+    public void rejectBookingSaga_WhenBookingNoLongerPending_ShouldDoNothing() {
+        UserView user = new UserView(1L, "user", "mail", "phone");
+        Booking confirmed = booking(1L, 5L, user, LocalDateTime.now());
+        when(bookingRepository.findAndLockById(1L)).thenReturn(Optional.of(confirmed));
+
+        bookingService.rejectBookingSaga(1L, "late failure");
+
+        assertThat(confirmed.getStatus()).isEqualTo("Created");
+        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).notifyStatusChanged(any());
+    }
+
+    private BookingSummaryDto summary(Long id, Long carId, UserView user, LocalDateTime createdAt) {
+        return new BookingSummaryDto(id, carId, "Created", null, null, createdAt,
+                user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber());
+    }
+
+    private Booking booking(Long id, Long carId, UserView user, LocalDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setCarId(carId);
+        booking.setUserView(user);
+        booking.setStatus("Created");
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+}
@@ -0,0 +1,53 @@
+package services;
+
+import by.kireenko.BookingService.dto.event.BookingStatusChangedEvent;
+import by.kireenko.BookingService.services.BookingStatusStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookingStatusStreamTest {
+    private final BookingStatusStream bookingStatusStream = new BookingStatusStream();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(bookingStatusStream, "bufferSize", 16);
+    }
+
+    @Test
+    public void updates_ShouldDeliverOnlyTheSubscribersOwnBookings() {
+        List<BookingStatusChangedEvent> aliceEvents = new CopyOnWriteArrayList<>();
+        List<BookingStatusChangedEvent> bobEvents = new CopyOnWriteArrayList<>();
+        Disposable alice = bookingStatusStream.updates("alice").subscribe(aliceEvents::add);
+        Disposable bob = bookingStatusStream.updates("bob").subscribe(bobEvents::add);
+
+        bookingStatusStream.publish(new BookingStatusChangedEvent(1L, "alice", "Created"));
+        bookingStatusStream.publish(new BookingStatusChangedEvent(2L, "bob", "Cancelled"));
+        bookingStatusStream.publish(new BookingStatusChangedEvent(3L, "alice", "Cancelled"));
+
+        assertThat(aliceEvents).extracting(BookingStatusChangedEvent::getBookingId).containsExactly(1L, 3L);
+        assertThat(bobEvents).extracting(BookingStatusChangedEvent::getStatus).containsExactly("Cancelled");
+        assertThat(bookingStatusStream.subscriberCount()).isEqualTo(2);
+
+        alice.dispose();
+        bob.dispose();
+        assertThat(bookingStatusStream.subscriberCount()).isZero();
+    }
+
+    @Test
+    public void publish_WithoutSubscribers_ShouldDropEventQuietly() {
+        bookingStatusStream.publish(new BookingStatusChangedEvent(1L, "alice", "Created"));
+
+        List<BookingStatusChangedEvent> lateEvents = new CopyOnWriteArrayList<>();
+        Disposable late = bookingStatusStream.updates("alice").subscribe(lateEvents::add);
+
+        assertThat(lateEvents).isEmpty();
+        late.dispose();
+    }
+}
@@ -0,0 +1,124 @@
+package services;
+
+import by.kireenko.BookingService.client.CarLookupBatcher;
+import by.kireenko.BookingService.client.CarServiceClient;
+import by.kireenko.BookingService.dto.CarDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CarLookupBatcherTest {
+
+    @Mock
+    private CarServiceClient carServiceClient;
+
+    @InjectMocks
+    private CarLookupBatcher carLookupBatcher;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(carLookupBatcher, "batchWindowMs", 5L);
+        ReflectionTestUtils.setField(carLookupBatcher, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(carLookupBatcher, "timeoutMs", 5000L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        carLookupBatcher.shutdown();
+    }
+
+    @Test
+    public void load_ConcurrentLookups_CoalescedIntoSingleBatch() {
+        ReflectionTestUtils.setField(carLookupBatcher, "batchWindowMs", 10_000L);
+        when(carServiceClient.fetchCarsByIds(anyList(), any())).thenReturn(Mono.just(List.of(car(1L), car(2L))));
+
+        CompletableFuture<CarDto> first = carLookupBatcher.load(1L);
+        CompletableFuture<CarDto> second = carLookupBatcher.load(2L);
+        CompletableFuture<CarDto> duplicate = carLookupBatcher.load(1L);
+        CompletableFuture<CarDto> missing = carLookupBatcher.load(3L);
+        carLookupBatcher.flush();
+
+        assertSame(first, duplicate);
+        assertThat(first.join().getId()).isEqualTo(1L);
+        assertThat(second.join().getId()).isEqualTo(2L);
+        assertNull(missing.join());
+
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        verify(carServiceClient, times(1)).fetchCarsByIds(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    public void getCarsByIds_FlushedByWindow_ReturnsFoundCars() {
+        when(carServiceClient.fetchCarsByIds(anyList(), any())).thenReturn(Mono.just(List.of(car(5L))));
+
+        Map<Long, CarDto> cars = carLookupBatcher.getCarsByIds(List.of(5L, 6L));
+
+        assertThat(cars).containsOnlyKeys(5L);
+        verify(carServiceClient, times(1)).fetchCarsByIds(anyList(), any());
+    }
+
+    @Test
+    public void getCarById_BatchFails_PropagatesErrorToCaller() {
+        when(carServiceClient.fetchCarsByIds(anyList(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("car-service unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> carLookupBatcher.getCarById(1L));
+    }
+
+    @Test
+    public void load_DifferentCallers_BatchedSeparatelyWithTheirOwnCredentials() {
+        ReflectionTestUtils.setField(carLookupBatcher, "batchWindowMs", 10_000L);
+        when(carServiceClient.fetchCarsByIds(List.of(1L), "Bearer alice")).thenReturn(Mono.just(List.of(car(1L))));
+        when(carServiceClient.fetchCarsByIds(List.of(1L), "Bearer bob")).thenReturn(Mono.just(List.of(car(1L))));
+
+        actAs("Bearer alice");
+        CompletableFuture<CarDto> alice = carLookupBatcher.load(1L);
+        actAs("Bearer bob");
+        CompletableFuture<CarDto> bob = carLookupBatcher.load(1L);
+        carLookupBatcher.flush();
+
+        assertThat(alice).isNotSameAs(bob);
+        assertThat(alice.join().getId()).isEqualTo(1L);
+        assertThat(bob.join().getId()).isEqualTo(1L);
+        verify(carServiceClient).fetchCarsByIds(List.of(1L), "Bearer alice");
+        verify(carServiceClient).fetchCarsByIds(List.of(1L), "Bearer bob");
+    }
+
+    private CarDto car(Long id) {
+        CarDto carDto = new CarDto();
+        carDto.setId(id);
+        return carDto;
+    }
+
+    private void actAs(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
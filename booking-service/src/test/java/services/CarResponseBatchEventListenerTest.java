@@ -0,0 +1,108 @@
+package services;
+
+import by.kireenko.BookingService.dto.event.CarReservationFailedEvent;
+import by.kireenko.BookingService.dto.event.CarReservedEvent;
+import by.kireenko.BookingService.kafka.CarResponseBatchEventListener;
+import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.InboxDeduplicator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CarResponseBatchEventListenerTest {
+
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private InboxDeduplicator inboxDeduplicator;
+
+    @InjectMocks
+    private CarResponseBatchEventListener listener;
+
+    @Test
+    public void handleCarReserved_ShouldConfirmBatchAndRetryLockedOnesPerRecord() {
+        when(bookingService.confirmBookingSagas(Set.of(1L, 2L, 3L))).thenReturn(List.of(2L));
+
+        listener.handleCarReserved(List.of(reserved(1L), reserved(2L), reserved(3L), reserved(1L)));
+
+        verify(bookingService).confirmBookingSaga(2L);
+        verify(bookingService, times(1)).confirmBookingSaga(anyLong());
+    }
+
+    @Test
+    public void handleCarReserved_WhenBatchFails_ShouldConfirmEachBookingSeparately() {
+        when(bookingService.confirmBookingSagas(Set.of(1L, 2L))).thenThrow(new RuntimeException("db down"));
+
+        listener.handleCarReserved(List.of(reserved(1L), reserved(2L)));
+
+        verify(bookingService).confirmBookingSaga(1L);
+        verify(bookingService).confirmBookingSaga(2L);
+    }
+
+    @Test
+    public void handleCarReserved_WhenRecordFails_ShouldReportItsIndexToTheContainer() {
+        when(bookingService.confirmBookingSagas(Set.of(1L, 2L, 3L))).thenReturn(List.of(3L, 2L));
+        doThrow(new RuntimeException("broken")).when(bookingService).confirmBookingSaga(2L);
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> listener.handleCarReserved(List.of(reserved(1L), reserved(2L), reserved(3L))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+        verify(bookingService, never()).confirmBookingSaga(3L);
+    }
+
+    @Test
+    public void handleCarReservationFailed_WhenRecordFails_ShouldReportItsIndexToTheContainer() {
+        when(bookingService.rejectBookingSagas(Map.of(1L, "unavailable", 2L, "maintenance"))).thenReturn(List.of(2L));
+        doThrow(new RuntimeException("broken")).when(bookingService).rejectBookingSaga(2L, "maintenance");
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> listener.handleCarReservationFailed(List.of(
+                        new CarReservationFailedEvent(1L, 10L, "unavailable"),
+                        new CarReservationFailedEvent(2L, 11L, "maintenance"))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleCarReservationFailed_ShouldRejectBatchWithReasons() {
+        when(bookingService.rejectBookingSagas(Map.of(1L, "unavailable", 2L, "maintenance"))).thenReturn(List.of());
+
+        listener.handleCarReservationFailed(List.of(
+                new CarReservationFailedEvent(1L, 10L, "unavailable"),
+                new CarReservationFailedEvent(2L, 11L, "maintenance")));
+
+        verify(bookingService, never()).rejectBookingSaga(anyLong(), anyString());
+    }
+
+    private CarReservedEvent reserved(Long bookingId) {
+        CarReservedEvent event = new CarReservedEvent();
+        event.setBookingId(bookingId);
+        return event;
+    }
+
+    @Test
+    public void handleCarReserved_ShouldDropAlreadyProcessedReplies() {
+        when(inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2")))
+                .thenReturn(Set.of("carReserved:1"));
+        when(bookingService.confirmBookingSagas(Set.of(2L))).thenReturn(List.of());
+
+        listener.handleCarReserved(List.of(reserved(1L), reserved(2L)));
+
+        verify(bookingService).confirmBookingSagas(Set.of(2L));
+    }
+}
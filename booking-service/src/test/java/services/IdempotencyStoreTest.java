@@ -0,0 +1,175 @@
+package services;
+
+import by.kireenko.BookingService.dto.BookingDto;
+import by.kireenko.BookingService.dto.CreateBookingRequestDto;
+import by.kireenko.BookingService.error.BookingConflictException;
+import by.kireenko.BookingService.error.IdempotencyKeyReuseException;
+import by.kireenko.BookingService.error.InvalidIdempotencyKeyException;
+import by.kireenko.BookingService.services.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTest {
+    private static final String KEY = "booking:idempotency:alice:create:key-1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private IdempotencyStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new IdempotencyStore(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(store, "inFlightTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(store, "pollIntervalMs", 1L);
+        ReflectionTestUtils.setField(store, "maxKeyLength", 255);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void execute_WithNewKey_ShouldStoreTheResponseOverTheClaim() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(30000)))).thenReturn(true);
+
+        BookingDto result = store.execute("alice:create", "key-1", request(1L), () -> booking(7L, "PENDING"));
+
+        assertThat(result.getId()).isEqualTo(7L);
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq(KEY), claim.capture(), any(Duration.class));
+        ArgumentCaptor<String> completed = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY)), eq(claim.getValue()),
+                completed.capture(), eq(String.valueOf(Duration.ofHours(24).toMillis())));
+        assertThat(objectMapper.readValue(completed.getValue(), Map.class))
+                .extractingByKey("response").extracting("status").isEqualTo("PENDING");
+    }
+
+    @Test
+    public void execute_WithCompletedKeyAndSameRequest_ShouldReplayTheOriginalResponse() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(entry(hashOf(request(1L)), booking(7L, "PENDING")));
+        AtomicInteger calls = new AtomicInteger();
+
+        BookingDto replayed = store.execute("alice:create", "key-1", request(1L), () -> {
+            calls.incrementAndGet();
+            return booking(8L, "PENDING");
+        });
+
+        assertThat(replayed.getId()).isEqualTo(7L);
+        assertThat(replayed.getStatus()).isEqualTo("PENDING");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    public void execute_WithSameKeyAndDifferentRequest_ShouldReject() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(entry(hashOf(request(1L)), booking(7L, "PENDING")));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> store.execute("alice:create", "key-1", request(2L), () -> booking(8L, "PENDING")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void execute_WhenActionFails_ShouldReleaseOnlyItsOwnClaim() {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("alice:create", "key-1", request(1L), () -> {
+            throw new IllegalStateException("car-service unavailable");
+        }));
+
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq(KEY), claim.capture(), any(Duration.class));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY)), eq(claim.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void execute_WhenActionThrowsError_ShouldStillReleaseKey() {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertThrows(StackOverflowError.class, () -> store.execute("alice:create", "key-1", request(1L), () -> {
+            throw new StackOverflowError();
+        }));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY)), anyString());
+    }
+
+    @Test
+    public void execute_WhenKeyStaysInProgress_ShouldReportConflict() throws Exception {
+        ReflectionTestUtils.setField(store, "inFlightTimeoutMs", 20L);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(entry(hashOf(request(1L)), null));
+
+        assertThrows(BookingConflictException.class,
+                () -> store.execute("alice:create", "key-1", request(1L), () -> booking(8L, "PENDING")));
+    }
+
+    @Test
+    public void execute_WithOverlongOrBlankKey_ShouldRejectBeforeTouchingRedis() {
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> store.execute("alice:create", "k".repeat(256), request(1L), () -> booking(8L, "PENDING")));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> store.execute("alice:create", "key 1", request(1L), () -> booking(8L, "PENDING")));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private String entry(String requestHash, BookingDto response) throws Exception {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("requestHash", requestHash);
+        entry.put("claimId", response == null ? "claim" : null);
+        entry.put("response", response);
+        return objectMapper.writeValueAsString(entry);
+    }
+
+    private String hashOf(CreateBookingRequestDto request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+    }
+
+    private BookingDto booking(Long id, String status) {
+        BookingDto booking = new BookingDto();
+        booking.setId(id);
+        booking.setStatus(status);
+        booking.setStartDate(LocalDate.of(2026, 11, 1));
+        return booking;
+    }
+
+    private CreateBookingRequestDto request(Long carId) {
+        CreateBookingRequestDto request = new CreateBookingRequestDto();
+        request.setCarId(carId);
+        request.setStartDate(LocalDate.of(2026, 11, 1));
+        request.setEndDate(LocalDate.of(2026, 11, 5));
+        return request;
+    }
+}
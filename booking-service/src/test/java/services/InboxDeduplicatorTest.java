@@ -0,0 +1,186 @@
+package services;
+
+import by.kireenko.BookingService.repositories.ProcessedMessageRepository;
+import by.kireenko.BookingService.services.InboxDeduplicator;
+import by.kireenko.BookingService.services.MessageIdBloomFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InboxDeduplicatorTest {
+
+    @Mock
+    private ProcessedMessageRepository processedMessageRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private InboxDeduplicator inboxDeduplicator;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(inboxDeduplicator, "expectedMessages", 1000L);
+        ReflectionTestUtils.setField(inboxDeduplicator, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(inboxDeduplicator, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(inboxDeduplicator, "catchUpOverlap", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inboxDeduplicator.shutdown();
+    }
+
+    @Test
+    public void findProcessed_WhenBloomFilterHasNeverSeenIds_ShouldSkipDatabase() {
+        trust(new MessageIdBloomFilter(1000, 0.01));
+
+        Set<String> processed = inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2"));
+
+        assertThat(processed).isEmpty();
+        verifyNoInteractions(processedMessageRepository);
+    }
+
+    @Test
+    public void findProcessed_ShouldConfirmBloomHitsAgainstTable() {
+        trust(new MessageIdBloomFilter(1000, 0.01));
+        inboxDeduplicator.markProcessed(List.of("carReserved:1"));
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1"))).thenReturn(List.of("carReserved:1"));
+
+        Set<String> processed = inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2"));
+
+        assertThat(processed).containsExactly("carReserved:1");
+        verify(processedMessageRepository).insertIgnoringDuplicates(List.of("carReserved:1"));
+        verify(processedMessageRepository, never()).findExistingIds(List.of("carReserved:1", "carReserved:2"));
+    }
+
+    @Test
+    public void findProcessed_BeforeFilterIsWarmed_ShouldCheckEveryIdAgainstTable() {
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1", "carReserved:2")))
+                .thenReturn(List.of("carReserved:2"));
+
+        Set<String> processed = inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2"));
+
+        assertThat(processed).containsExactly("carReserved:2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void warmUp_ShouldKeepIdsProcessedWhileLoading() throws Exception {
+        runTransactionsInline();
+        when(processedMessageRepository.streamIdsProcessedSince(any(LocalDateTime.class), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    inboxDeduplicator.markProcessed(List.of("carReserved:2"));
+                    return Stream.of("carReserved:1");
+                });
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1", "carReserved:2")))
+                .thenReturn(List.of("carReserved:1", "carReserved:2"));
+
+        inboxDeduplicator.warmUp();
+        awaitLoads();
+        Set<String> processed = inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2", "carReserved:3"));
+
+        assertThat(processed).containsExactlyInAnyOrder("carReserved:1", "carReserved:2");
+    }
+
+    @Test
+    public void onPartitionsAssigned_ShouldCatchUpFromLastLoadInsteadOfReloading() throws Exception {
+        runTransactionsInline();
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(processedMessageRepository.streamIdsProcessedSince(since.capture(), any(Limit.class)))
+                .thenAnswer(invocation -> Stream.of("carReserved:1"))
+                .thenAnswer(invocation -> Stream.of("carReserved:2"));
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1", "carReserved:2")))
+                .thenReturn(List.of("carReserved:1", "carReserved:2"));
+
+        inboxDeduplicator.warmUp();
+        awaitLoads();
+        inboxDeduplicator.onPartitionsAssigned();
+        awaitLoads();
+
+        assertThat(since.getAllValues().get(0)).isBefore(LocalDateTime.now().minusDays(6));
+        assertThat(since.getAllValues().get(1)).isAfter(LocalDateTime.now().minusMinutes(10));
+        assertThat(inboxDeduplicator.findProcessed(List.of("carReserved:1", "carReserved:2", "carReserved:3")))
+                .containsExactlyInAnyOrder("carReserved:1", "carReserved:2");
+    }
+
+    @Test
+    public void onPartitionsAssigned_ShouldNotBlockAndDistrustFilterUntilLoaded() throws Exception {
+        trust(new MessageIdBloomFilter(1000, 0.01));
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            release.await();
+            return 0L;
+        });
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1"))).thenReturn(List.of("carReserved:1"));
+
+        inboxDeduplicator.onPartitionsAssigned();
+
+        assertThat(inboxDeduplicator.findProcessed(List.of("carReserved:1"))).containsExactly("carReserved:1");
+        release.countDown();
+        awaitLoads();
+    }
+
+    @Test
+    public void onPartitionsAssigned_WhenLoadFails_ShouldKeepCheckingTheTable() throws Exception {
+        trust(new MessageIdBloomFilter(1000, 0.01));
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("db down"));
+        when(processedMessageRepository.findExistingIds(List.of("carReserved:1"))).thenReturn(List.of("carReserved:1"));
+
+        inboxDeduplicator.onPartitionsAssigned();
+        awaitLoads();
+
+        assertThat(inboxDeduplicator.findProcessed(List.of("carReserved:1"))).containsExactly("carReserved:1");
+    }
+
+    @Test
+    public void bloomFilter_ShouldKeepFalsePositiveRateNearTarget() {
+        MessageIdBloomFilter filter = new MessageIdBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("carReserved:" + i));
+
+        long falsePositives = IntStream.range(10_000, 20_000)
+                .filter(i -> filter.mightContain("carReserved:" + i))
+                .count();
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("carReserved:" + i))).isTrue();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    private void trust(MessageIdBloomFilter filter) {
+        ReflectionTestUtils.setField(inboxDeduplicator, "currentFilter", filter);
+        ReflectionTestUtils.setField(inboxDeduplicator, "bloomFilter", filter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Long>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private void awaitLoads() throws Exception {
+        ((ExecutorService) ReflectionTestUtils.getField(inboxDeduplicator, "loadExecutor")).submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+}
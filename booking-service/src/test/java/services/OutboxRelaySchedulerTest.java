@@ -0,0 +1,117 @@
+package services;
+
+import by.kireenko.BookingService.kafka.OutboxRelayScheduler;
+import by.kireenko.BookingService.models.OutboxEvent;
+import by.kireenko.BookingService.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelaySchedulerTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelayScheduler outboxRelayScheduler;
+
+    @BeforeEach
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("booking.outbox.batch-size", "2")
+                .withProperty("booking.outbox.send-timeout-ms", "1000")
+                .withProperty("booking.outbox.poll-interval-ms", "100")
+                .withProperty("booking.outbox.max-idle-backoff-ms", "60000")
+                .withProperty("booking.outbox.max-batches-per-run", "10");
+        outboxRelayScheduler = new OutboxRelayScheduler(outboxEventRepository, kafkaTemplate, objectMapper,
+                transactionTemplate, environment);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void processOutboxEvents_WhenBacklogExists_ShouldDrainFullBatchesAndMarkThemInBulk() {
+        when(outboxEventRepository.claimUnprocessedBatch(2))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+        when(kafkaTemplate.send(eq("booking-events-topic"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        outboxRelayScheduler.processOutboxEvents();
+
+        verify(outboxEventRepository, times(2)).claimUnprocessedBatch(2);
+        verify(outboxEventRepository).markProcessed(List.of(1L, 2L));
+        verify(outboxEventRepository).markProcessed(List.of(3L));
+    }
+
+    @Test
+    public void processOutboxEvents_WhenSendFails_ShouldLeaveFailedEventUnprocessed() {
+        when(outboxEventRepository.claimUnprocessedBatch(2)).thenReturn(List.of(event(1L), event(2L)));
+        when(kafkaTemplate.send(any(), eq("1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(any(), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        outboxRelayScheduler.processOutboxEvents();
+
+        verify(outboxEventRepository, times(1)).claimUnprocessedBatch(2);
+        verify(outboxEventRepository).markProcessed(List.of(1L));
+    }
+
+    @Test
+    public void processOutboxEvents_WhenIdle_ShouldBackOffBeforeNextPoll() {
+        when(outboxEventRepository.claimUnprocessedBatch(anyInt())).thenReturn(List.of());
+
+        outboxRelayScheduler.processOutboxEvents();
+        outboxRelayScheduler.processOutboxEvents();
+
+        verify(outboxEventRepository, times(1)).claimUnprocessedBatch(2);
+        verify(outboxEventRepository, never()).markProcessed(any());
+    }
+
+    @Test
+    public void wakeUp_WhenIdleBackoffPending_ShouldRelayImmediately() {
+        when(outboxEventRepository.claimUnprocessedBatch(2))
+                .thenReturn(List.of())
+                .thenReturn(List.of(event(1L)));
+        when(kafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        outboxRelayScheduler.processOutboxEvents();
+        outboxRelayScheduler.wakeUp();
+
+        verify(outboxEventRepository, timeout(1000)).markProcessed(List.of(1L));
+        outboxRelayScheduler.shutdown();
+    }
+
+    private OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType("Booking")
+                .aggregateId(id.toString())
+                .eventType("bookingDeleted")
+                .payload("null")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryCounter {
+    private final Statistics statistics;
+
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public QueryCounter assertStatements(long expected) {
+        assertThat(statistics.getPrepareStatementCount())
+                .as("JDBC statements prepared, queries: %s", String.join(" | ", statistics.getQueries()))
+                .isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCounter assertNoEntitiesLoaded() {
+        assertThat(statistics.getEntityLoadCount()).as("entities hydrated").isZero();
+        return this;
+    }
+}
@@ -0,0 +1,147 @@
+package services;
+
+import by.kireenko.BookingService.client.CarServiceClient;
+import by.kireenko.BookingService.dto.BookingDto;
+import by.kireenko.BookingService.dto.BookingPageDto;
+import by.kireenko.BookingService.dto.BookingSummaryDto;
+import by.kireenko.BookingService.dto.CarDto;
+import by.kireenko.BookingService.models.Booking;
+import by.kireenko.BookingService.models.UserView;
+import by.kireenko.BookingService.services.BookingService;
+import by.kireenko.BookingService.services.CarViewService;
+import by.kireenko.BookingService.services.ReactiveBookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveBookingServiceTest {
+
+    @Mock private BookingService bookingService;
+    @Mock private CarViewService carViewService;
+    @Mock private CarServiceClient carServiceClient;
+
+    private ReactiveBookingService reactiveBookingService;
+
+    private final UserView user = new UserView(1L, "user", "mail", "phone");
+
+    @BeforeEach
+    public void setUp() {
+        reactiveBookingService = new ReactiveBookingService(bookingService, carViewService, carServiceClient,
+                Schedulers.immediate());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void getBookingDtoById_WhenCarInLocalView_ShouldNotCallCarService() {
+        when(bookingService.getBookingById(10L)).thenReturn(booking(10L, 5L));
+        when(carViewService.findLocalCarDtosByIds(List.of(5L))).thenReturn(Map.of(5L, car(5L)));
+
+        BookingDto bookingDto = reactiveBookingService.getBookingDtoById(10L).block();
+
+        assertThat(bookingDto.getCar().getId()).isEqualTo(5L);
+        verifyNoInteractions(carServiceClient);
+    }
+
+    @Test
+    public void getCurrentUserBookingsDto_WhenCarsMissingLocally_ShouldFetchThemInOneBatch() {
+        when(bookingService.resolvePageSize(2)).thenReturn(2);
+        List<BookingSummaryDto> rows = List.of(summary(3L, 5L), summary(2L, 6L), summary(1L, 7L));
+        when(bookingService.findCurrentUserBookingsPage(null, 2)).thenReturn(rows);
+        when(bookingService.carIdsOf(rows, 2)).thenReturn(List.of(5L, 6L));
+        when(carViewService.findLocalCarDtosByIds(List.of(5L, 6L))).thenReturn(Map.of());
+        when(carServiceClient.fetchCarsByIds(eq(List.of(5L, 6L)), any()))
+                .thenReturn(Mono.just(List.of(car(5L), car(6L))));
+        when(bookingService.toBookingPage(eq(rows), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Map<Long, CarDto> cars = invocation.getArgument(2);
+                    assertThat(cars).containsOnlyKeys(5L, 6L);
+                    return new BookingPageDto(List.of(), "next");
+                });
+
+        BookingPageDto page = reactiveBookingService.getCurrentUserBookingsDto(null, 2).block();
+
+        assertThat(page.getNextCursor()).isEqualTo("next");
+        verify(carServiceClient, never()).fetchCarById(any(), any());
+        verify(carServiceClient, times(1)).fetchCarsByIds(anyList(), any());
+    }
+
+    @Test
+    public void getBookingDtoById_ShouldBindTheServletRequestOnTheJdbcScheduler() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        List<Object> boundRequests = new CopyOnWriteArrayList<>();
+        when(bookingService.getBookingById(10L)).thenAnswer(invocation -> {
+            RequestAttributes bound = RequestContextHolder.getRequestAttributes();
+            bound.setAttribute("memo", "user", RequestAttributes.SCOPE_REQUEST);
+            boundRequests.add(((ServletRequestAttributes) bound).getRequest());
+            return booking(10L, 5L);
+        });
+        when(carViewService.findLocalCarDtosByIds(List.of(5L))).thenAnswer(invocation -> {
+            boundRequests.add(((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest());
+            return Map.of(5L, car(5L));
+        });
+        Scheduler jdbcScheduler = Schedulers.newSingle("test-jdbc");
+        try {
+            Mono<BookingDto> booking = new ReactiveBookingService(bookingService, carViewService, carServiceClient,
+                    jdbcScheduler).getBookingDtoById(10L);
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+
+            assertThat(booking.block().getId()).isEqualTo(10L);
+        } finally {
+            jdbcScheduler.dispose();
+        }
+
+        assertThat(boundRequests).containsExactly(request, request);
+        assertThat(request.getAttribute("memo")).isEqualTo("user");
+    }
+
+    private Booking booking(Long id, Long carId) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setCarId(carId);
+        booking.setUserView(user);
+        booking.setStatus("Created");
+        booking.setStartDate(LocalDate.now());
+        booking.setEndDate(LocalDate.now().plusDays(1));
+        return booking;
+    }
+
+    private BookingSummaryDto summary(Long id, Long carId) {
+        return new BookingSummaryDto(id, carId, "Created", LocalDate.now(), LocalDate.now().plusDays(1),
+                LocalDateTime.now(), user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber());
+    }
+
+    private CarDto car(Long id) {
+        return new CarDto(id, "Toyota", "Camry", 2022, 55.5, "Available");
+    }
+}
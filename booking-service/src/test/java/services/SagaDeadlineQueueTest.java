@@ -0,0 +1,53 @@
+package services;
+
+import by.kireenko.BookingService.services.SagaDeadlineQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SagaDeadlineQueueTest {
+
+    private final SagaDeadlineQueue sagaDeadlineQueue = new SagaDeadlineQueue();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(sagaDeadlineQueue, "timeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(sagaDeadlineQueue, "retryDelay", Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void pollExpired_ShouldReturnOnlyDueDeadlinesInOrderAndInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        sagaDeadlineQueue.register(1L, now.minusMinutes(12));
+        sagaDeadlineQueue.register(2L, now.minusMinutes(15));
+        sagaDeadlineQueue.register(3L, now.minusMinutes(11));
+        sagaDeadlineQueue.register(4L, now);
+
+        assertThat(sagaDeadlineQueue.pollExpired(2)).containsExactly(2L, 1L);
+        assertThat(sagaDeadlineQueue.pollExpired(2)).containsExactly(3L);
+        assertThat(sagaDeadlineQueue.pollExpired(2)).isEmpty();
+        assertThat(sagaDeadlineQueue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void register_WhenBookingAlreadyQueued_ShouldNotDuplicateDeadline() {
+        sagaDeadlineQueue.register(1L, LocalDateTime.now().minusHours(1));
+        sagaDeadlineQueue.register(1L, LocalDateTime.now().minusHours(1));
+
+        assertThat(sagaDeadlineQueue.pollExpired(10)).containsExactly(1L);
+    }
+
+    @Test
+    public void retryLater_ShouldDelayBookingsByRetryDelay() {
+        ReflectionTestUtils.setField(sagaDeadlineQueue, "retryDelay", Duration.ZERO);
+        sagaDeadlineQueue.retryLater(List.of(7L));
+
+        assertThat(sagaDeadlineQueue.pollExpired(10)).containsExactly(7L);
+    }
+}
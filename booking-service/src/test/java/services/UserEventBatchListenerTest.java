@@ -0,0 +1,88 @@
+package services;
+
+import by.kireenko.BookingService.dto.UserDto;
+import by.kireenko.BookingService.kafka.UserEventBatchListener;
+import by.kireenko.BookingService.services.UserViewService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserEventBatchListenerTest {
+
+    @Mock
+    private UserViewService userViewService;
+
+    @InjectMocks
+    private UserEventBatchListener listener;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void consumeUserEvents_ShouldCollapseEventsPerUserAndApplyOnce() {
+        UserDto first = new UserDto(1L, "old", "old@mail.com", "+1");
+        UserDto latest = new UserDto(1L, "new", "new@mail.com", "+2");
+        UserDto other = new UserDto(2L, "other", "other@mail.com", "+3");
+
+        listener.consumeUserEvents(List.of(
+                record(null, first),
+                record(null, other),
+                record("1", latest),
+                record("3", null),
+                record("broken", null)));
+
+        ArgumentCaptor<Map<Long, UserDto>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(userViewService).applyUserEvents(captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(captor.getValue().get(1L)).isSameAs(latest);
+        assertThat(captor.getValue().get(3L)).isNull();
+        verify(userViewService, never()).applyUserEvent(any(), any());
+    }
+
+    @Test
+    public void consumeUserEvents_WhenBatchFails_ShouldApplyEachUserSeparately() {
+        UserDto user = new UserDto(1L, "user", "user@mail.com", "+1");
+        doThrow(new RuntimeException("constraint violation")).when(userViewService).applyUserEvents(any());
+
+        listener.consumeUserEvents(List.of(record("1", user, 0), record("2", null, 1)));
+
+        verify(userViewService).applyUserEvent(1L, user);
+        verify(userViewService).applyUserEvent(2L, null);
+    }
+
+    @Test
+    public void consumeUserEvents_WhenRecordFails_ShouldReportItToTheContainer() {
+        UserDto user = new UserDto(2L, "user", "user@mail.com", "+1");
+        ConsumerRecord<String, UserDto> failing = record("2", user, 1);
+        doThrow(new RuntimeException("constraint violation")).when(userViewService).applyUserEvents(any());
+        lenient().doThrow(new RuntimeException("constraint violation")).when(userViewService).applyUserEvent(2L, user);
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> listener.consumeUserEvents(List.of(record("1", null, 0), failing, record("3", null, 2))));
+
+        assertSame(failing, exception.getRecord());
+        verify(userViewService).applyUserEvent(1L, null);
+        verify(userViewService, never()).applyUserEvent(3L, null);
+    }
+
+    private ConsumerRecord<String, UserDto> record(String key, UserDto value) {
+        return record(key, value, 0);
+    }
+
+    private ConsumerRecord<String, UserDto> record(String key, UserDto value, long offset) {
+        return new ConsumerRecord<>("user-events", 0, offset, key, value);
+    }
+}
@@ -0,0 +1,80 @@
+package services;
+
+import by.kireenko.BookingService.models.UserView;
+import by.kireenko.BookingService.services.UserViewCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserViewCacheTest {
+
+    private final UserViewCache cache = new UserViewCache();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(cache, "maxSize", 10000);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofSeconds(60));
+    }
+
+    @Test
+    public void getOrLoad_ShouldHitDatabaseOncePerName() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("user", name -> load(loads, 1L, name));
+        Optional<UserView> cached = cache.getOrLoad("user", name -> load(loads, 1L, name));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached).get().extracting(UserView::getId).isEqualTo(1L);
+    }
+
+    @Test
+    public void invalidate_ByUserId_ShouldDropEntryUnderPreviousName() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("old-name", name -> load(loads, 1L, name));
+
+        cache.invalidate(List.of(1L), List.of("new-name"));
+        cache.getOrLoad("old-name", name -> load(loads, 1L, name));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void getOrLoad_WhenInvalidatedDuringLoad_ShouldNotCacheStaleValue() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("user", name -> {
+            cache.invalidate(List.of(1L), List.of(name));
+            return load(loads, 1L, name);
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void getOrLoad_ShouldRespectTtlAndMaxSize() {
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("a", name -> load(loads, 1L, name));
+        cache.getOrLoad("b", name -> load(loads, 2L, name));
+        cache.getOrLoad("c", name -> load(loads, 3L, name));
+        assertThat(cache.size()).isEqualTo(2);
+
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ZERO);
+        cache.getOrLoad("d", name -> load(loads, 4L, name));
+        cache.getOrLoad("d", name -> load(loads, 4L, name));
+        assertThat(loads).hasValue(5);
+    }
+
+    private Optional<UserView> load(AtomicInteger loads, Long id, String name) {
+        loads.incrementAndGet();
+        return Optional.of(new UserView(id, name, name + "@mail.com", "+" + id));
+    }
+}
@@ -1,5 +1,6 @@
 package by.kireenko.CarDetailsService.config;
 
+import by.kireenko.SecurityCommon.config.JwtRequestFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -1,6 +1,7 @@
 package by.kireenko.CarService.config;
 
 import by.kireenko.CarService.dto.CarDto;
+import by.kireenko.CarService.dto.event.BookingEventDto;
 import by.kireenko.CarService.dto.event.BookingRequestedEvent;
 import by.kireenko.CarService.dto.event.CarReservationFailedEvent;
 import by.kireenko.CarService.dto.event.CarReservedEvent;
@@ -25,6 +26,7 @@ public class KafkaConfig {
         typeMapper.addTrustedPackages("*");
         Map<String, Class<?>> mappings = new HashMap<>();
         mappings.put("car", CarDto.class);
+        mappings.put("booking", BookingEventDto.class);
         mappings.put("bookingRequested", BookingRequestedEvent.class);
         mappings.put("carReserved", CarReservedEvent.class);
         mappings.put("carReservationFailed", CarReservationFailedEvent.class);
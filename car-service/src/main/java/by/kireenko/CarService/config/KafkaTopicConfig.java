@@ -11,6 +11,7 @@ public class KafkaTopicConfig {
     public static final String CAR_EVENTS_TOPIC = "car-events";
     public static final String CAR_RESERVATION_SUCCESS_TOPIC = "car-reservation-success-topic";
     public static final String CAR_RESERVATION_FAILED_TOPIC = "car-reservation-failed-topic";
+    public static final String BOOKING_EVENTS_TOPIC = "booking-events-topic";
 
     @Bean
     public NewTopic carEventsTopic() {
@@ -20,6 +21,19 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    /**
+     * Keyed by booking id and compacted, so the latest state of every booking stays on the topic and the
+     * availability index can be rebuilt by replaying it from the beginning.
+     */
+    @Bean
+    public NewTopic bookingEventsTopic() {
+        return TopicBuilder.name(BOOKING_EVENTS_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
     @Bean
     public NewTopic carReservationSuccessTopic() {
         return TopicBuilder.name(CAR_RESERVATION_SUCCESS_TOPIC)
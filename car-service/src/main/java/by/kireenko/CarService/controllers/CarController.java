@@ -2,14 +2,17 @@ package by.kireenko.CarService.controllers;
 
 import by.kireenko.CarService.dto.CarDto;
 import by.kireenko.CarService.dto.CarRequestDto;
+import by.kireenko.CarService.dto.CarSearchPageDto;
 import by.kireenko.CarService.services.CarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -76,6 +79,20 @@ public class CarController {
         return carService.getAvailableCarsDto();
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search free cars", description = "Returns cars that have no active booking between 'from' and 'to', optionally filtered by brand, price and year. Pass the returned 'nextCursor' as 'after' to get the next page.")
+    public CarSearchPageDto searchAvailableCars(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(required = false) String brand,
+                                                @RequestParam(required = false) Double minPrice,
+                                                @RequestParam(required = false) Double maxPrice,
+                                                @RequestParam(required = false) Integer minYear,
+                                                @RequestParam(required = false) Integer maxYear,
+                                                @RequestParam(required = false) Long after,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return carService.searchAvailableCarsDto(from, to, brand, minPrice, maxPrice, minYear, maxYear, after, size);
+    }
+
     @PostMapping("/{id}/reserve")
     @Operation(summary = "Reserve a car", description = "Atomically checks if a car is available and updates its status to 'Rented'.")
     public CarDto reserveCar(@PathVariable Long id) {
@@ -0,0 +1,19 @@
+package by.kireenko.CarService.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A page of cars that are free for the requested date range")
+public class CarSearchPageDto {
+    @Schema(description = "Cars on this page, ordered by ID")
+    private List<CarDto> cars;
+    @Schema(description = "Cursor to pass as 'after' to fetch the next page, null when there are no more results", example = "42")
+    private Long nextCursor;
+}
@@ -0,0 +1,59 @@
+package by.kireenko.CarService.kafka;
+
+import by.kireenko.CarService.config.KafkaTopicConfig;
+import by.kireenko.CarService.dto.CarDto;
+import by.kireenko.CarService.dto.event.BookingEventDto;
+import by.kireenko.CarService.services.CarAvailabilityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the in-memory availability index. Each instance uses its own stable consumer groups, so every instance
+ * sees every event and restarts do not leave new groups behind. The booking topic is compacted and replayed from
+ * the beginning on every assignment, because the booked days live only in memory.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarAvailabilityEventListener implements ConsumerSeekAware {
+
+    private final CarAvailabilityIndex carAvailabilityIndex;
+
+    @KafkaListener(topics = KafkaTopicConfig.BOOKING_EVENTS_TOPIC, groupId = "${car.availability.consumer-group}-bookings",
+            properties = "auto.offset.reset=earliest")
+    public void consumeBookingEvent(ConsumerRecord<String, BookingEventDto> record) {
+        try {
+            carAvailabilityIndex.applyBookingEvent(Long.parseLong(record.key()), record.value());
+        } catch (NumberFormatException e) {
+            log.error("Received booking event with invalid key: {}", record.key(), e);
+        }
+    }
+
+    @KafkaListener(topics = KafkaTopicConfig.CAR_EVENTS_TOPIC, groupId = "${car.availability.consumer-group}-cars",
+            properties = "auto.offset.reset=earliest")
+    public void consumeCarEvent(ConsumerRecord<String, CarDto> record) {
+        try {
+            carAvailabilityIndex.applyCarEvent(Long.parseLong(record.key()), record.value());
+        } catch (NumberFormatException e) {
+            log.error("Received car event with invalid key: {}", record.key(), e);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> bookingPartitions = assignments.keySet().stream()
+                .filter(partition -> partition.topic().equals(KafkaTopicConfig.BOOKING_EVENTS_TOPIC))
+                .toList();
+        if (!bookingPartitions.isEmpty()) {
+            callback.seekToBeginning(bookingPartitions);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package by.kireenko.CarService.repositories;
 
 import by.kireenko.CarService.models.OutboxEvent;
+import by.kireenko.DatasourceCommon.outbox.OutboxMessageRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
-    List<OutboxEvent> findByProcessedFalseOrderByCreatedAtAsc();
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxMessageRepository<OutboxEvent> {
+    @Query(value = "select * from outbox_events where processed = false order by created_at, id " +
+            "limit :batchSize for update skip locked", nativeQuery = true)
+    @Override
+    List<OutboxEvent> claimUnprocessedBatch(int batchSize);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.processed = true where e.id in :ids")
+    @Override
+    int markProcessed(Collection<Long> ids);
 }
@@ -0,0 +1,175 @@
+package by.kireenko.CarService.services;
+
+import by.kireenko.CarService.dto.CarDto;
+import by.kireenko.CarService.dto.event.BookingEventDto;
+import by.kireenko.CarService.models.Car;
+import by.kireenko.CarService.repositories.CarRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarAvailabilityIndex {
+    private static final Set<String> ACTIVE_BOOKING_STATUSES = Set.of("PENDING", "Created");
+
+    private final CarRepository carRepository;
+
+    @Value("${car.availability.horizon-days:730}")
+    private int horizonDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, CarSlot> slotsByCarId = new TreeMap<>();
+    private final Map<String, BitSet> slotsByBrand = new HashMap<>();
+    private final NavigableMap<LocalDate, BitSet> bookedSlotsByDay = new TreeMap<>();
+    private final Map<Long, BookedRange> bookingsById = new HashMap<>();
+    private int nextSlot;
+
+    @PostConstruct
+    public void warmUp() {
+        List<Car> cars = carRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            cars.forEach(car -> putCar(car.getId(), car.getBrand(), car.getYear(), car.getRentalPrice()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Car availability index warmed up with {} cars", cars.size());
+    }
+
+    public List<Long> findFreeCarIds(LocalDate from, LocalDate to, String brand, Double minPrice, Double maxPrice,
+                                     Integer minYear, Integer maxYear, Long after, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet booked = new BitSet();
+            bookedSlotsByDay.subMap(from, true, to, true).values().forEach(booked::or);
+
+            BitSet brandSlots = brand != null ? slotsByBrand.getOrDefault(normalize(brand), new BitSet()) : null;
+            Map<Long, CarSlot> candidates = after != null ? slotsByCarId.tailMap(after, false) : slotsByCarId;
+
+            List<Long> result = new ArrayList<>(limit);
+            for (Map.Entry<Long, CarSlot> entry : candidates.entrySet()) {
+                CarSlot slot = entry.getValue();
+                if (booked.get(slot.index()) || (brandSlots != null && !brandSlots.get(slot.index()))) continue;
+                if (minPrice != null && slot.rentalPrice() < minPrice) continue;
+                if (maxPrice != null && slot.rentalPrice() > maxPrice) continue;
+                if (minYear != null && slot.year() < minYear) continue;
+                if (maxYear != null && slot.year() > maxYear) continue;
+                result.add(entry.getKey());
+                if (result.size() == limit) break;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void applyCarEvent(Long carId, CarDto carDto) {
+        lock.writeLock().lock();
+        try {
+            if (carDto == null) {
+                removeCar(carId);
+            } else {
+                putCar(carId, carDto.getBrand(), carDto.getYear(), carDto.getRentalPrice());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LocalDate horizonEnd() {
+        return LocalDate.now().plusDays(horizonDays);
+    }
+
+    public void applyBookingEvent(Long bookingId, BookingEventDto bookingEvent) {
+        lock.writeLock().lock();
+        try {
+            bookedSlotsByDay.headMap(LocalDate.now(), false).clear();
+            BookedRange previous = bookingsById.remove(bookingId);
+            if (previous != null) {
+                markDays(previous, false);
+            }
+            if (bookingEvent != null && ACTIVE_BOOKING_STATUSES.contains(bookingEvent.getStatus())
+                    && bookingEvent.getStartDate() != null && bookingEvent.getEndDate() != null) {
+                BookedRange range = new BookedRange(bookingEvent.getCarId(), bookingEvent.getStartDate(),
+                        bookingEvent.getEndDate());
+                bookingsById.put(bookingId, range);
+                markDays(range, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            bookedSlotsByDay.headMap(today, false).clear();
+            bookingsById.values().removeIf(range -> range.endDate().isBefore(today));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putCar(Long carId, String brand, Integer year, Double rentalPrice) {
+        CarSlot existing = slotsByCarId.get(carId);
+        int index = existing != null ? existing.index() : nextSlot++;
+        if (existing != null) {
+            slotsByBrand.get(normalize(existing.brand())).clear(index);
+        }
+        slotsByCarId.put(carId, new CarSlot(index, brand, year, rentalPrice));
+        slotsByBrand.computeIfAbsent(normalize(brand), key -> new BitSet()).set(index);
+    }
+
+    private void removeCar(Long carId) {
+        CarSlot removed = slotsByCarId.remove(carId);
+        if (removed != null) {
+            slotsByBrand.get(normalize(removed.brand())).clear(removed.index());
+            bookedSlotsByDay.values().forEach(days -> days.clear(removed.index()));
+        }
+    }
+
+    private void markDays(BookedRange range, boolean booked) {
+        CarSlot slot = slotsByCarId.get(range.carId());
+        if (slot == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = range.startDate().isBefore(today) ? today : range.startDate();
+        LocalDate to = range.endDate().isAfter(horizonEnd()) ? horizonEnd() : range.endDate();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (booked) {
+                bookedSlotsByDay.computeIfAbsent(day, key -> new BitSet()).set(slot.index());
+            } else {
+                BitSet slots = bookedSlotsByDay.get(day);
+                if (slots != null) {
+                    slots.clear(slot.index());
+                    if (slots.isEmpty()) {
+                        bookedSlotsByDay.remove(day);
+                    }
+                }
+            }
+        }
+    }
+
+    private String normalize(String brand) {
+        return brand == null ? "" : brand.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record CarSlot(int index, String brand, int year, double rentalPrice) {
+    }
+
+    private record BookedRange(Long carId, LocalDate startDate, LocalDate endDate) {
+    }
+}
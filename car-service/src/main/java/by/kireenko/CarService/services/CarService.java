@@ -2,11 +2,13 @@ package by.kireenko.CarService.services;
 
 import by.kireenko.CarService.dto.CarDto;
 import by.kireenko.CarService.dto.CarRequestDto;
+import by.kireenko.CarService.dto.CarSearchPageDto;
 import by.kireenko.CarService.dto.event.CarReservationFailedEvent;
 import by.kireenko.CarService.dto.event.CarReservedEvent;
 import by.kireenko.CarService.error.NotValidResourceState;
 import by.kireenko.CarService.error.ResourceNotFoundException;
 import by.kireenko.CarService.kafka.CarEventProducer;
+import by.kireenko.CarService.kafka.CarOutboxRelayScheduler;
 import by.kireenko.CarService.models.Car;
 import by.kireenko.CarService.models.OutboxEvent;
 import by.kireenko.CarService.repositories.CarRepository;
@@ -21,8 +23,10 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,15 +40,20 @@ public class CarService {
     private final CarService self;
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarOutboxRelayScheduler outboxRelayScheduler;
 
     @Autowired
     public CarService(CarRepository carRepository, CarEventProducer carEventProducer, @Lazy CarService self,
-                      OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+                      OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                      CarAvailabilityIndex carAvailabilityIndex, CarOutboxRelayScheduler outboxRelayScheduler) {
         this.carRepository = carRepository;
         this.carEventProducer = carEventProducer;
         this.self = self;
         this.outboxEventRepository = outboxEventRepository;
         this.objectMapper = objectMapper;
+        this.carAvailabilityIndex = carAvailabilityIndex;
+        this.outboxRelayScheduler = outboxRelayScheduler;
     }
 
     public List<Car> getAllCars() {
@@ -186,6 +195,31 @@ public class CarService {
         return carDtoList;
     }
 
+    public CarSearchPageDto searchAvailableCarsDto(LocalDate from, LocalDate to, String brand,
+                                                   Double minPrice, Double maxPrice,
+                                                   Integer minYear, Integer maxYear, Long after, int size) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new NotValidResourceState("Search", "date range", from + " - " + to, "from not after to");
+        }
+        if (to.isAfter(carAvailabilityIndex.horizonEnd())) {
+            throw new NotValidResourceState("Search", "date range", from + " - " + to,
+                    "to not after " + carAvailabilityIndex.horizonEnd());
+        }
+        int pageSize = Math.max(1, Math.min(size, 100));
+
+        List<Long> ids = carAvailabilityIndex.findFreeCarIds(from, to, brand, minPrice, maxPrice,
+                minYear, maxYear, after, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+
+        List<CarDto> cars = carRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Car::getId))
+                .map(CarDto::new)
+                .collect(Collectors.toList());
+
+        return new CarSearchPageDto(cars, hasMore ? pageIds.get(pageIds.size() - 1) : null);
+    }
+
     private void saveOutboxEvent(String aggregateId, String eventType, Object payload) {
         try {
             String jsonPayload = payload != null ? objectMapper.writeValueAsString(payload) : "null";
@@ -198,6 +232,7 @@ public class CarService {
                     .processed(false)
                     .build();
             outboxEventRepository.save(outboxEvent);
+            outboxRelayScheduler.wakeUpAfterCommit();
         } catch (Exception e) {
             log.error("Failed to serialize Outbox event for car {}", aggregateId, e);
             throw new RuntimeException("Could not create outbox event", e);
@@ -0,0 +1,37 @@
+package by.kireenko.CarService.utils;
+
+import by.kireenko.CarService.kafka.CarEventProducer;
+import by.kireenko.CarService.models.Car;
+import by.kireenko.CarService.repositories.CarRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+@Slf4j
+public class InitialDataPublisher implements CommandLineRunner {
+
+    private final CarRepository carRepository;
+    private final CarEventProducer carEventProducer;
+
+    @Override
+    public void run(String... args) {
+        log.info("InitialDataPublisher: Checking for existing cars to publish to Kafka...");
+
+        List<Car> existingCars = carRepository.findAll();
+
+        if (existingCars.isEmpty()) {
+            log.info("InitialDataPublisher: No existing cars found. Nothing to publish.");
+            return;
+        }
+
+        log.info("InitialDataPublisher: Found {} existing cars. Publishing them to the 'car-events' topic.", existingCars.size());
+        existingCars.forEach(carEventProducer::sendCarUpdatedEvent);
+
+        log.info("InitialDataPublisher: Finished publishing existing car data.");
+    }
+}
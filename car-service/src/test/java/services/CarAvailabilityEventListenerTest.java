@@ -0,0 +1,49 @@
+package services;
+
+import by.kireenko.CarService.config.KafkaTopicConfig;
+import by.kireenko.CarService.kafka.CarAvailabilityEventListener;
+import by.kireenko.CarService.services.CarAvailabilityIndex;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityEventListenerTest {
+
+    @Mock
+    private CarAvailabilityIndex carAvailabilityIndex;
+
+    @Mock
+    private ConsumerSeekCallback callback;
+
+    @InjectMocks
+    private CarAvailabilityEventListener listener;
+
+    @Test
+    public void onPartitionsAssigned_BookingPartitions_ShouldReplayFromTheBeginning() {
+        TopicPartition first = new TopicPartition(KafkaTopicConfig.BOOKING_EVENTS_TOPIC, 0);
+        TopicPartition second = new TopicPartition(KafkaTopicConfig.BOOKING_EVENTS_TOPIC, 1);
+
+        listener.onPartitionsAssigned(Map.of(first, 10L), callback);
+        listener.onPartitionsAssigned(Map.of(second, 4L), callback);
+
+        verify(callback).seekToBeginning(List.of(first));
+        verify(callback).seekToBeginning(List.of(second));
+    }
+
+    @Test
+    public void onPartitionsAssigned_CarPartitions_ShouldResumeFromCommittedOffsets() {
+        listener.onPartitionsAssigned(Map.of(new TopicPartition(KafkaTopicConfig.CAR_EVENTS_TOPIC, 0), 10L), callback);
+
+        verifyNoInteractions(callback);
+    }
+}
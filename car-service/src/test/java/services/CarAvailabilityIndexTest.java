@@ -0,0 +1,89 @@
+package services;
+
+import by.kireenko.CarService.dto.CarDto;
+import by.kireenko.CarService.dto.event.BookingEventDto;
+import by.kireenko.CarService.models.Car;
+import by.kireenko.CarService.repositories.CarRepository;
+import by.kireenko.CarService.services.CarAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityIndexTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    @InjectMocks
+    private CarAvailabilityIndex carAvailabilityIndex;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(carAvailabilityIndex, "horizonDays", 365);
+        when(carRepository.findAll()).thenReturn(List.of(
+                new Car(1L, "Toyota", "Corolla", 2020, 40.0, "Available"),
+                new Car(2L, "Honda", "Civic", 2019, 45.0, "Available"),
+                new Car(3L, "Toyota", "Camry", 2022, 60.0, "Rented"),
+                new Car(4L, "Ford", "Focus", 2021, 50.0, "Available")
+        ));
+        carAvailabilityIndex.warmUp();
+    }
+
+    @Test
+    public void findFreeCarIds_ShouldExcludeCarsBookedOnAnyDayOfTheRange() {
+        carAvailabilityIndex.applyBookingEvent(10L,
+                new BookingEventDto(10L, 2L, "Created", today.plusDays(3), today.plusDays(5)));
+
+        assertThat(carAvailabilityIndex.findFreeCarIds(today.plusDays(5), today.plusDays(8),
+                null, null, null, null, null, null, 10)).containsExactly(1L, 3L, 4L);
+        assertThat(carAvailabilityIndex.findFreeCarIds(today.plusDays(6), today.plusDays(8),
+                null, null, null, null, null, null, 10)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    public void findFreeCarIds_WhenBookingIsCancelledOrDeleted_ShouldFreeTheCar() {
+        carAvailabilityIndex.applyBookingEvent(10L,
+                new BookingEventDto(10L, 1L, "Created", today, today.plusDays(2)));
+        carAvailabilityIndex.applyBookingEvent(11L,
+                new BookingEventDto(11L, 4L, "PENDING", today, today.plusDays(2)));
+
+        carAvailabilityIndex.applyBookingEvent(10L,
+                new BookingEventDto(10L, 1L, "Cancelled", today, today.plusDays(2)));
+        carAvailabilityIndex.applyBookingEvent(11L, null);
+
+        assertThat(carAvailabilityIndex.findFreeCarIds(today, today.plusDays(2),
+                null, null, null, null, null, null, 10)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    public void findFreeCarIds_ShouldApplyFiltersAndKeysetCursor() {
+        assertThat(carAvailabilityIndex.findFreeCarIds(today, today,
+                "toyota", null, null, null, null, null, 10)).containsExactly(1L, 3L);
+        assertThat(carAvailabilityIndex.findFreeCarIds(today, today,
+                null, 42.0, 55.0, 2020, null, null, 10)).containsExactly(4L);
+        assertThat(carAvailabilityIndex.findFreeCarIds(today, today,
+                null, null, null, null, null, 2L, 1)).containsExactly(3L);
+    }
+
+    @Test
+    public void applyCarEvent_ShouldUpdateFiltersAndRemoveDeletedCars() {
+        carAvailabilityIndex.applyCarEvent(2L, new CarDto(2L, "Toyota", "Civic", 2019, 45.0, "Available"));
+        carAvailabilityIndex.applyCarEvent(3L, null);
+
+        assertThat(carAvailabilityIndex.findFreeCarIds(today, today,
+                "Toyota", null, null, null, null, null, 10)).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,24 @@
+package by.kireenko.DatasourceCommon.config;
+
+import by.kireenko.DatasourceCommon.outbox.OutboxRetentionJob;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@AutoConfiguration(after = JdbcTemplateAutoConfiguration.class)
+@ConditionalOnProperty(name = "datasource.outbox-retention.property-prefix")
+public class OutboxRetentionAutoConfiguration {
+
+    @Bean
+    public OutboxRetentionJob outboxRetentionJob(JdbcTemplate jdbcTemplate, Environment environment) {
+        String prefix = environment.getRequiredProperty("datasource.outbox-retention.property-prefix") + ".";
+        return new OutboxRetentionJob(jdbcTemplate,
+                environment.getProperty(prefix + "days", Integer.class, 7),
+                environment.getProperty(prefix + "precreate-days", Integer.class, 3),
+                environment.getProperty(prefix + "drop-detached", Boolean.class, true),
+                environment.getProperty(prefix + "cron", "0 15 3 * * *"));
+    }
+}
@@ -0,0 +1,97 @@
+package by.kireenko.DatasourceCommon.notify;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@code LISTEN channel} on a dedicated connection outside the pool and hands every payload to a consumer.
+ * The connection is re-opened after failures; {@code onListen} runs after each (re)subscription so callers can
+ * catch up on notifications missed while disconnected.
+ */
+@Slf4j
+public class PgNotificationListener {
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final Runnable onListen;
+    private final Consumer<String> onNotification;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PgNotificationListener(DataSourceProperties dataSourceProperties, String channel, Duration pollTimeout,
+                                  Duration reconnectDelay, Runnable onListen, Consumer<String> onNotification) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.onListen = onListen;
+        this.onNotification = onNotification;
+        this.pollTimeoutMs = (int) pollTimeout.toMillis();
+        this.reconnectDelayMs = reconnectDelay.toMillis();
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "pg-listener-" + channel);
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for notifications on channel {}", channel);
+                onListen.run();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Listener on channel {} lost its connection, reconnecting in {} ms", channel, reconnectDelayMs, e);
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            onNotification.accept(payload);
+        } catch (RuntimeException e) {
+            log.error("Handler for channel {} failed on notification {}", channel, payload, e);
+        }
+    }
+}
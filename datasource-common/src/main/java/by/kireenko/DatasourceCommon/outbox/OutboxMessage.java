@@ -0,0 +1,14 @@
+package by.kireenko.DatasourceCommon.outbox;
+
+/**
+ * A row of a service's {@code outbox_events} table as seen by {@link OutboxRelay}.
+ */
+public interface OutboxMessage {
+    Long getId();
+
+    String getAggregateId();
+
+    String getEventType();
+
+    String getPayload();
+}
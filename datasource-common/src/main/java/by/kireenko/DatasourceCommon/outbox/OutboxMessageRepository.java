@@ -0,0 +1,17 @@
+package by.kireenko.DatasourceCommon.outbox;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The two queries {@link OutboxRelay} needs; a service's Spring Data repository extends this and declares them
+ * with its own {@code @Query}.
+ */
+public interface OutboxMessageRepository<E extends OutboxMessage> {
+    /**
+     * Locks up to {@code batchSize} unprocessed rows, skipping rows another relay already holds.
+     */
+    List<E> claimUnprocessedBatch(int batchSize);
+
+    int markProcessed(Collection<Long> ids);
+}
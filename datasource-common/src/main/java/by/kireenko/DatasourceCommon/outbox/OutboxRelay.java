@@ -0,0 +1,198 @@
+package by.kireenko.DatasourceCommon.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relays claimed {@code outbox_events} rows to Kafka in batches and marks the acknowledged ones processed.
+ * Polls with an idle backoff and can be woken up right after a commit or a {@code NOTIFY}; a service subclass
+ * only maps event types to topics and payload classes. Settings are read under the service's own prefix.
+ */
+@Slf4j
+public abstract class OutboxRelay<E extends OutboxMessage> implements SchedulingConfigurer {
+
+    private final OutboxMessageRepository<E> outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long pollIntervalMs;
+    private final long maxIdleBackoffMs;
+    private final int maxBatchesPerRun;
+
+    private final ExecutorService wakeupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay-wakeup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean wakeupQueued = new AtomicBoolean();
+    private volatile boolean rerunRequested;
+    private volatile long nextPollAt;
+    private long idleBackoffMs;
+
+    protected OutboxRelay(OutboxMessageRepository<E> outboxRepository, KafkaTemplate<String, Object> kafkaTemplate,
+                          ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                          Environment environment, String propertyPrefix) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        String prefix = propertyPrefix + ".";
+        this.batchSize = environment.getProperty(prefix + "batch-size", Integer.class, 200);
+        this.sendTimeoutMs = environment.getProperty(prefix + "send-timeout-ms", Long.class, 10000L);
+        this.pollIntervalMs = environment.getProperty(prefix + "poll-interval-ms", Long.class, 100L);
+        this.maxIdleBackoffMs = environment.getProperty(prefix + "max-idle-backoff-ms", Long.class, 5000L);
+        this.maxBatchesPerRun = environment.getProperty(prefix + "max-batches-per-run", Integer.class, 50);
+    }
+
+    protected abstract String resolveTopic(String eventType);
+
+    protected abstract Class<?> resolveEventClass(String eventType);
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::processOutboxEvents, Duration.ofMillis(pollIntervalMs));
+    }
+
+    public void processOutboxEvents() {
+        if (System.currentTimeMillis() < nextPollAt) {
+            return;
+        }
+        drain();
+    }
+
+    public void wakeUp() {
+        nextPollAt = 0;
+        if (wakeupQueued.compareAndSet(false, true)) {
+            wakeupExecutor.execute(() -> {
+                wakeupQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    public void wakeUpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeupExecutor.shutdown();
+    }
+
+    private void drain() {
+        do {
+            if (!relayLock.tryLock()) {
+                rerunRequested = true;
+                return;
+            }
+            try {
+                do {
+                    rerunRequested = false;
+                    relayPending();
+                } while (rerunRequested);
+            } finally {
+                relayLock.unlock();
+            }
+        } while (rerunRequested);
+    }
+
+    private void relayPending() {
+        int batches = 0;
+        int relayed;
+        do {
+            relayed = Objects.requireNonNull(transactionTemplate.execute(status -> relayBatch()));
+            batches++;
+        } while (relayed == batchSize && batches < maxBatchesPerRun);
+
+        if (relayed == 0) {
+            idleBackoffMs = Math.min(Math.max(idleBackoffMs * 2, pollIntervalMs), maxIdleBackoffMs);
+            nextPollAt = System.currentTimeMillis() + idleBackoffMs;
+        } else {
+            idleBackoffMs = 0;
+            nextPollAt = 0;
+        }
+    }
+
+    private int relayBatch() {
+        List<E> events = outboxRepository.claimUnprocessedBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Long>> sends = new ArrayList<>(events.size());
+        for (E outboxEvent : events) {
+            try {
+                sends.add(kafkaTemplate.send(resolveTopic(outboxEvent.getEventType()), outboxEvent.getAggregateId(),
+                                readPayload(outboxEvent))
+                        .handle((result, error) -> {
+                            if (error != null) {
+                                log.error("Failed to send outbox event ID {}. It will be retried.", outboxEvent.getId(), error);
+                                return null;
+                            }
+                            return outboxEvent.getId();
+                        }));
+            } catch (Exception e) {
+                log.error("Failed to process outbox event ID {}. It will be retried.", outboxEvent.getId(), e);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for outbox sends to complete");
+        } catch (Exception e) {
+            log.warn("Timed out waiting for outbox sends, unacknowledged events will be retried", e);
+        }
+
+        List<Long> sentIds = sends.stream()
+                .filter(send -> send.isDone() && !send.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markProcessed(sentIds);
+        }
+        log.info("Relayed {} of {} claimed outbox events", sentIds.size(), events.size());
+        return sentIds.size();
+    }
+
+    private Object readPayload(E outboxEvent) throws Exception {
+        if (outboxEvent.getPayload().equals("null")) {
+            return null;
+        }
+        return objectMapper.readValue(outboxEvent.getPayload(), resolveEventClass(outboxEvent.getEventType()));
+    }
+}
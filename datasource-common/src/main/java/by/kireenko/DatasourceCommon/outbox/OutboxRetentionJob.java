@@ -0,0 +1,108 @@
+package by.kireenko.DatasourceCommon.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps daily partitions of {@code outbox_events} ahead of time and retires the ones past retention.
+ * Registered by {@code OutboxRetentionAutoConfiguration} with settings read under the service's own prefix.
+ */
+@Slf4j
+public class OutboxRetentionJob implements SchedulingConfigurer {
+    private static final String PARTITION_PREFIX = "outbox_events_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final int precreateDays;
+    private final boolean dropDetached;
+    private final String cron;
+
+    public OutboxRetentionJob(JdbcTemplate jdbcTemplate, int retentionDays, int precreateDays, boolean dropDetached,
+                              String cron) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        this.precreateDays = precreateDays;
+        this.dropDetached = dropDetached;
+        this.cron = cron;
+    }
+
+    /**
+     * Runs once the context is ready, after Liquibase has turned {@code outbox_events} into a partitioned table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createUpcomingPartitions() {
+        ensurePartitions(LocalDate.now());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addCronTask(this::maintainPartitions, cron);
+    }
+
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        ensurePartitions(today);
+        purgeExpired(today.minusDays(retentionDays));
+    }
+
+    public void ensurePartitions(LocalDate today) {
+        for (int offset = 0; offset <= precreateDays; offset++) {
+            LocalDate day = today.plusDays(offset);
+            String partition = partitionName(day);
+            try {
+                jdbcTemplate.execute("create table if not exists " + partition + " partition of outbox_events " +
+                        "for values from ('" + day + "') to ('" + day.plusDays(1) + "')");
+            } catch (DataAccessException e) {
+                log.warn("Could not create outbox partition {}, rows for {} stay in the default partition", partition, day, e);
+            }
+        }
+    }
+
+    public void purgeExpired(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("select c.relname from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent " +
+                "where p.relname = 'outbox_events'", String.class);
+
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)
+                    || !LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX).isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                Boolean pending = jdbcTemplate.queryForObject(
+                        "select exists(select 1 from " + partition + " where processed = false)", Boolean.class);
+                if (Boolean.TRUE.equals(pending)) {
+                    log.warn("Outbox partition {} is past retention but still has unprocessed events", partition);
+                    continue;
+                }
+                jdbcTemplate.execute("alter table outbox_events detach partition " + partition);
+                if (dropDetached) {
+                    jdbcTemplate.execute("drop table " + partition);
+                }
+                log.info("Outbox partition {} {}", partition, dropDetached ? "dropped" : "detached");
+            } catch (DataAccessException e) {
+                log.warn("Failed to retire outbox partition {}", partition, e);
+            }
+        }
+
+        int deleted = jdbcTemplate.update("delete from outbox_events_default where processed = true and created_at < ?",
+                cutoff.atStartOfDay());
+        if (deleted > 0) {
+            log.info("Deleted {} processed outbox events from the default partition", deleted);
+        }
+    }
+
+    private String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,74 @@
+package by.kireenko.DatasourceCommon.routing;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ReadYourWritesTracker {
+    private final Duration window;
+    private final int maxTrackedUsers;
+    private final Clock clock;
+
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Instant> pinnedUntilByUser = new LinkedHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, int maxTrackedUsers) {
+        this(window, maxTrackedUsers, Clock.systemUTC());
+    }
+
+    public ReadYourWritesTracker(Duration window, int maxTrackedUsers, Clock clock) {
+        this.window = window;
+        this.maxTrackedUsers = maxTrackedUsers;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String username) {
+        Instant now = clock.instant();
+        lock.lock();
+        try {
+            pinnedUntilByUser.remove(username);
+            pinnedUntilByUser.put(username, now.plus(window));
+            Iterator<Instant> eldest = pinnedUntilByUser.values().iterator();
+            while (eldest.hasNext()) {
+                Instant pinnedUntil = eldest.next();
+                if (pinnedUntil.isAfter(now) && pinnedUntilByUser.size() <= maxTrackedUsers) {
+                    break;
+                }
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isPinned(String username) {
+        Instant now = clock.instant();
+        lock.lock();
+        try {
+            Instant pinnedUntil = pinnedUntilByUser.get(username);
+            if (pinnedUntil == null) {
+                return false;
+            }
+            if (!pinnedUntil.isAfter(now)) {
+                pinnedUntilByUser.remove(username);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int trackedUsers() {
+        lock.lock();
+        try {
+            return pinnedUntilByUser.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
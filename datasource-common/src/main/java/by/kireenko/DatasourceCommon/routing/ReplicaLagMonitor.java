@@ -0,0 +1,131 @@
+package by.kireenko.DatasourceCommon.routing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+    private static final String REPLICA_STATUS_QUERY = """
+            SELECT pg_is_in_recovery(),
+                   pg_last_wal_replay_lsn()::text,
+                   EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            """;
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+    private ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    public synchronized void start() {
+        if (executor != null || replicas.isEmpty()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-lag-monitor").daemon().factory());
+        executor.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void checkLag() {
+        Long primaryLsn = null;
+        try {
+            primaryLsn = queryPrimaryLsn();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to read WAL position of the primary: {}", e.getMessage());
+        }
+
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try {
+                if (isCaughtUp(replica.getValue(), primaryLsn)) {
+                    healthy.add(replica.getKey());
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Replica {} is unreachable, routing its reads to the primary: {}", replica.getKey(), e.getMessage());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy read replicas: {}", healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public String nextHealthyReplica() {
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    public List<String> healthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private Long queryPrimaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            return resultSet.next() ? parseLsn(resultSet.getString(1)) : null;
+        }
+    }
+
+    private boolean isCaughtUp(DataSource replica, Long primaryLsn) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICA_STATUS_QUERY)) {
+            if (!resultSet.next()) {
+                return false;
+            }
+            if (!resultSet.getBoolean(1)) {
+                return true;
+            }
+            Long replayLsn = parseLsn(resultSet.getString(2));
+            if (primaryLsn != null && replayLsn != null && replayLsn >= primaryLsn) {
+                return true;
+            }
+            double lagSeconds = resultSet.getDouble(3);
+            return !resultSet.wasNull() && lagSeconds * 1000 <= maxLag.toMillis();
+        }
+    }
+
+    private static Long parseLsn(String lsn) {
+        if (lsn == null) {
+            return null;
+        }
+        int separator = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, separator), 16) << 32) | Long.parseLong(lsn.substring(separator + 1), 16);
+    }
+}
@@ -0,0 +1,31 @@
+ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+ALTER INDEX IF EXISTS outbox_events_pkey RENAME TO outbox_events_legacy_pkey;
+
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    processed BOOLEAN NOT NULL,
+    CONSTRAINT outbox_events_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, created_at, processed)
+SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at, processed
+FROM outbox_events_legacy
+WHERE processed = false;
+
+SELECT setval(pg_get_serial_sequence('outbox_events', 'id'),
+              COALESCE((SELECT MAX(id) FROM outbox_events_legacy), 0) + 1, false);
+
+DROP TABLE outbox_events_legacy;
+
+CREATE INDEX ix_outbox_events_unprocessed ON outbox_events (created_at, id) WHERE processed = false;
+
+CREATE TRIGGER outbox_events_notify
+    AFTER INSERT ON outbox_events
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_events();
@@ -0,0 +1,55 @@
+package services;
+
+import by.kireenko.DatasourceCommon.outbox.OutboxRetentionJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRetentionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OutboxRetentionJob outboxRetentionJob(int precreateDays) {
+        return new OutboxRetentionJob(jdbcTemplate, 7, precreateDays, true, "0 15 3 * * *");
+    }
+
+    @Test
+    public void ensurePartitions_ShouldCreateTodayAndPrecreatedDays() {
+        outboxRetentionJob(1).ensurePartitions(LocalDate.of(2025, 3, 31));
+
+        verify(jdbcTemplate).execute("create table if not exists outbox_events_p20250331 partition of outbox_events " +
+                "for values from ('2025-03-31') to ('2025-04-01')");
+        verify(jdbcTemplate).execute("create table if not exists outbox_events_p20250401 partition of outbox_events " +
+                "for values from ('2025-04-01') to ('2025-04-02')");
+    }
+
+    @Test
+    public void purgeExpired_ShouldDropOnlyFullyProcessedPartitionsPastCutoff() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "outbox_events_default", "outbox_events_p20250101", "outbox_events_p20250102", "outbox_events_p20250110"));
+        when(jdbcTemplate.queryForObject("select exists(select 1 from outbox_events_p20250101 where processed = false)",
+                Boolean.class)).thenReturn(false);
+        when(jdbcTemplate.queryForObject("select exists(select 1 from outbox_events_p20250102 where processed = false)",
+                Boolean.class)).thenReturn(true);
+
+        outboxRetentionJob(3).purgeExpired(LocalDate.of(2025, 1, 5));
+
+        verify(jdbcTemplate).execute("alter table outbox_events detach partition outbox_events_p20250101");
+        verify(jdbcTemplate).execute("drop table outbox_events_p20250101");
+        verify(jdbcTemplate, never()).execute("alter table outbox_events detach partition outbox_events_p20250102");
+        verify(jdbcTemplate, never()).execute("alter table outbox_events detach partition outbox_events_p20250110");
+        verify(jdbcTemplate).update(startsWith("delete from outbox_events_default"), any(Object[].class));
+    }
+}
@@ -0,0 +1,124 @@
+package services;
+
+import by.kireenko.DatasourceCommon.routing.ReadYourWritesTracker;
+import by.kireenko.DatasourceCommon.routing.ReplicaLagMonitor;
+import by.kireenko.DatasourceCommon.routing.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ResultSet primaryStatus = mock(ResultSet.class);
+    private final ResultSet replicaStatus = mock(ResultSet.class);
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        stubConnection(primary, primaryConnection, primaryStatus);
+        stubConnection(replica, replicaConnection, replicaStatus);
+        when(primaryStatus.next()).thenReturn(true);
+        when(primaryStatus.getString(1)).thenReturn("0/3000000");
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getBoolean(1)).thenReturn(true);
+
+        lagMonitor = new ReplicaLagMonitor(primary, Map.of("replica-0", replica), Duration.ofSeconds(5), Duration.ofSeconds(1));
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), lagMonitor,
+                new ReadYourWritesTracker(Duration.ofSeconds(5), 100, Clock.fixed(NOW, ZoneOffset.UTC)));
+        routingDataSource.initialize();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void getConnection_ShouldRouteReadOnlyTransactionsToCaughtUpReplica() throws SQLException {
+        when(replicaStatus.getString(2)).thenReturn("0/3000000");
+        lagMonitor.checkLag();
+
+        assertThat(lagMonitor.healthyReplicas()).containsExactly("replica-0");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    public void getConnection_ShouldFallBackToPrimaryWhenReplicaLagsOrIsDown() throws SQLException {
+        when(replicaStatus.getString(2)).thenReturn("0/2000000");
+        when(replicaStatus.getDouble(3)).thenReturn(30.0);
+        lagMonitor.checkLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(lagMonitor.healthyReplicas()).isEmpty();
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        lagMonitor.checkLag();
+
+        assertThat(lagMonitor.healthyReplicas()).isEmpty();
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    public void getConnection_ShouldPinUserToPrimaryAfterCommittedWrite() throws SQLException {
+        when(replicaStatus.getString(2)).thenReturn("0/3000000");
+        lagMonitor.checkLag();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer", null, List.of()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader", null, List.of()));
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private void stubConnection(DataSource dataSource, Connection connection, ResultSet resultSet) throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    }
+}
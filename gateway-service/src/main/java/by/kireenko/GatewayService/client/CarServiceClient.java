@@ -0,0 +1,31 @@
+package by.kireenko.GatewayService.client;
+
+import by.kireenko.GatewayService.dto.CarDto;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class CarServiceClient {
+    private final WebClient webClient;
+
+    public CarServiceClient(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        this.webClient = WebClient.builder()
+                .baseUrl("http://car-service")
+                .filter(loadBalancerFunction)
+                .build();
+    }
+
+    public Mono<List<CarDto>> fetchAvailableCars(String token) {
+        return webClient.get()
+                .uri("/api/cars/available")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<CarDto>>() {});
+    }
+}
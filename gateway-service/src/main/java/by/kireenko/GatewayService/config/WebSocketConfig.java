@@ -0,0 +1,18 @@
+package by.kireenko.GatewayService.config;
+
+import by.kireenko.GatewayService.websocket.CarAvailabilityWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping carAvailabilityHandlerMapping(CarAvailabilityWebSocketHandler carAvailabilityWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of(CarAvailabilityWebSocketHandler.PATH, carAvailabilityWebSocketHandler), -1);
+    }
+}
@@ -0,0 +1,35 @@
+package by.kireenko.GatewayService.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CarAvailabilityMessage {
+    public static final String SNAPSHOT = "snapshot";
+    public static final String UPSERT = "upsert";
+    public static final String REMOVE = "remove";
+
+    private String type;
+    private List<CarDto> cars;
+    private CarDto car;
+    private Long carId;
+
+    public static CarAvailabilityMessage snapshot(List<CarDto> cars) {
+        return new CarAvailabilityMessage(SNAPSHOT, cars, null, null);
+    }
+
+    public static CarAvailabilityMessage upsert(CarDto car) {
+        return new CarAvailabilityMessage(UPSERT, null, car, car.getId());
+    }
+
+    public static CarAvailabilityMessage remove(Long carId) {
+        return new CarAvailabilityMessage(REMOVE, null, null, carId);
+    }
+}
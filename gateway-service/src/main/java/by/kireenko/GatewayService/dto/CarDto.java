@@ -0,0 +1,17 @@
+package by.kireenko.GatewayService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CarDto {
+    private long id;
+    private String brand;
+    private String model;
+    private int year;
+    private double rentalPrice;
+    private String status;
+}
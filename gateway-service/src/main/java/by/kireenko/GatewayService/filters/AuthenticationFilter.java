@@ -1,8 +1,12 @@
 package by.kireenko.GatewayService.filters;
 
 import by.kireenko.GatewayService.utils.JwtTokenUtils;
+import by.kireenko.SecurityCommon.utils.IdentityHeaderSigner;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.http.HttpStatus;
@@ -11,14 +15,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationFilter implements GatewayFilter {
+    public static final String USERNAME_ATTRIBUTE = AuthenticationFilter.class.getName() + ".username";
 
     private final RouterValidator routerValidator;
     private final JwtTokenUtils jwtTokenUtils;
 
+    @Value("${security.identity-headers.enabled:false}")
+    private boolean identityHeadersEnabled;
+    @Value("${security.identity-headers.secret:${JWT_SECRET}}")
+    private String identityHeadersSecret;
+    private IdentityHeaderSigner identityHeaderSigner;
+
+    @PostConstruct
+    public void init() {
+        identityHeaderSigner = new IdentityHeaderSigner(identityHeadersSecret);
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
@@ -31,16 +49,38 @@ public class AuthenticationFilter implements GatewayFilter {
 
             final String token = this.getAuthHeader(request);
 
+            Claims claims;
             try {
-                jwtTokenUtils.validateToken(token);
+                claims = jwtTokenUtils.getClaimsFromToken(token);
             } catch (Exception e) {
                 log.error("Error validating token: {}", e.getMessage());
                 return this.onError(exchange, "Authorization error: Invalid token", HttpStatus.UNAUTHORIZED);
             }
+
+            if (claims.getSubject() != null) {
+                exchange.getAttributes().put(USERNAME_ATTRIBUTE, claims.getSubject());
+            }
+
+            if (identityHeadersEnabled && claims.getSubject() != null && claims.getExpiration() != null) {
+                return chain.filter(exchange.mutate().request(withIdentityHeaders(request, claims)).build());
+            }
         }
         return chain.filter(exchange);
     }
 
+    private ServerHttpRequest withIdentityHeaders(ServerHttpRequest request, Claims claims) {
+        List<?> roleClaims = claims.get("roles", List.class);
+        String username = claims.getSubject();
+        String roles = roleClaims == null ? "" : String.join(",", roleClaims.stream().map(String::valueOf).toList());
+        String expires = String.valueOf(claims.getExpiration().toInstant().getEpochSecond());
+        return request.mutate()
+                .header(IdentityHeaderSigner.USER_HEADER, username)
+                .header(IdentityHeaderSigner.ROLES_HEADER, roles)
+                .header(IdentityHeaderSigner.EXPIRES_HEADER, expires)
+                .header(IdentityHeaderSigner.SIGNATURE_HEADER, identityHeaderSigner.sign(username, roles, expires))
+                .build();
+    }
+
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
         exchange.getResponse().setStatusCode(httpStatus);
         return exchange.getResponse().setComplete();
@@ -0,0 +1,31 @@
+package by.kireenko.GatewayService.filters;
+
+import by.kireenko.SecurityCommon.utils.IdentityHeaderSigner;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@Component
+public class IdentityHeadersFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (IdentityHeaderSigner.HEADERS.stream().noneMatch(request.getHeaders()::containsKey)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest stripped = request.mutate()
+                .headers(headers -> IdentityHeaderSigner.HEADERS.forEach(headers::remove))
+                .build();
+        return chain.filter(exchange.mutate().request(stripped).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
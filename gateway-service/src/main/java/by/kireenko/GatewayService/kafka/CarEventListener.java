@@ -0,0 +1,37 @@
+package by.kireenko.GatewayService.kafka;
+
+import by.kireenko.GatewayService.dto.CarAvailabilityMessage;
+import by.kireenko.GatewayService.dto.CarDto;
+import by.kireenko.GatewayService.websocket.CarAvailabilityHub;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarEventListener {
+    public static final String CAR_EVENTS_TOPIC = "car-events";
+
+    private final CarAvailabilityHub carAvailabilityHub;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = CAR_EVENTS_TOPIC, groupId = "gateway-car-availability-${random.uuid}")
+    public void consumeCarEvent(ConsumerRecord<String, String> record) {
+        try {
+            if (record.value() == null) {
+                carAvailabilityHub.publish(CarAvailabilityMessage.remove(Long.parseLong(record.key())));
+                return;
+            }
+            carAvailabilityHub.publish(CarAvailabilityMessage.upsert(objectMapper.readValue(record.value(), CarDto.class)));
+        } catch (NumberFormatException e) {
+            log.error("Received car tombstone with invalid key: {}", record.key(), e);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed car event for key {}", record.key(), e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package by.kireenko.GatewayService.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Primary
+@Component
+public class LocalFirstRateLimiter extends AbstractRateLimiter<LocalFirstRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-first-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    /**
+     * One hash tag for every bucket, so all keys of a batched EVAL fall into the same Redis Cluster slot.
+     */
+    private static final String REDIS_KEY_PREFIX = "{gateway.local_first_rate_limiter}.";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC_SCRIPT =
+            RedisScript.of(new ClassPathResource("META-INF/scripts/local_first_rate_limiter.lua"), List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private Disposable syncLoop;
+
+    public LocalFirstRateLimiter(ReactiveStringRedisTemplate redisTemplate, ConfigurationService configurationService,
+                                 RateLimitProperties properties) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        getConfig().putAll(properties.getRoutes());
+    }
+
+    @PostConstruct
+    public void start() {
+        syncLoop = Flux.interval(properties.getSyncInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.defer(this::synchronize).onErrorResume(e -> {
+                    log.error("Rate limit reconciliation failed", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        syncLoop.dispose();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, properties.getDefaultConfig());
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(routeId + ":" + id, key -> new TokenBucket(config, now));
+        long remaining = bucket.tryConsume(now);
+        return Mono.just(new Response(remaining >= 0, headers(bucket.getConfig(), Math.max(remaining, 0))));
+    }
+
+    private Mono<Void> synchronize() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleNanos));
+
+        List<Map.Entry<String, TokenBucket>> due = buckets.entrySet().stream()
+                .filter(entry -> entry.getValue().needsSync(now))
+                .toList();
+        List<List<Map.Entry<String, TokenBucket>>> batches = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += properties.getSyncBatchSize()) {
+            batches.add(due.subList(from, Math.min(due.size(), from + properties.getSyncBatchSize())));
+        }
+        return Flux.fromIterable(batches).concatMap(this::synchronizeBatch).then();
+    }
+
+    private Mono<Void> synchronizeBatch(List<Map.Entry<String, TokenBucket>> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() * 3);
+        long[] drained = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            TokenBucket bucket = batch.get(i).getValue();
+            drained[i] = bucket.drainUnsynced();
+            keys.add(REDIS_KEY_PREFIX + batch.get(i).getKey());
+            args.add(String.valueOf(bucket.getConfig().getReplenishRate()));
+            args.add(String.valueOf(bucket.getConfig().getBurstCapacity()));
+            args.add(String.valueOf(drained[i]));
+        }
+
+        return redisTemplate.execute(SYNC_SCRIPT, keys, args)
+                .reduce(new ArrayList<Object>(), (all, part) -> {
+                    all.addAll(part);
+                    return all;
+                })
+                .doOnNext(remaining -> {
+                    for (int i = 0; i < batch.size() && i < remaining.size(); i++) {
+                        batch.get(i).getValue().reconcile(Double.parseDouble(String.valueOf(remaining.get(i))));
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Could not reconcile {} rate limit buckets with Redis, enforcing locally: {}",
+                            batch.size(), e.getMessage());
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).getValue().restoreUnsynced(drained[i]);
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private Map<String, String> headers(Config config, long remaining) {
+        return Map.of(
+                REMAINING_HEADER, String.valueOf(remaining),
+                REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+    }
+
+    @Data
+    public static class Config {
+        private int replenishRate = 5;
+        private int burstCapacity = 10;
+        private int requestedTokens = 1;
+    }
+}
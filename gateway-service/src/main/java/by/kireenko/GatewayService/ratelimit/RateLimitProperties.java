@@ -0,0 +1,18 @@
+package by.kireenko.GatewayService.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+    private LocalFirstRateLimiter.Config defaultConfig = new LocalFirstRateLimiter.Config();
+    private Map<String, LocalFirstRateLimiter.Config> routes = new HashMap<>();
+    private Duration syncInterval = Duration.ofMillis(200);
+    private int syncBatchSize = 500;
+    private Duration idleTimeout = Duration.ofMinutes(5);
+}
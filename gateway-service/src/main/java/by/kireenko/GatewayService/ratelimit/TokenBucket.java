@@ -0,0 +1,74 @@
+package by.kireenko.GatewayService.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+class TokenBucket {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final LocalFirstRateLimiter.Config config;
+    private double tokens;
+    private long refilledAt;
+    private long lastUsedAt;
+    private long unsynced;
+
+    TokenBucket(LocalFirstRateLimiter.Config config, long now) {
+        this.config = config;
+        this.tokens = config.getBurstCapacity();
+        this.refilledAt = now;
+        this.lastUsedAt = now;
+    }
+
+    LocalFirstRateLimiter.Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the tokens left after taking {@code requestedTokens}, or -1 when the request is denied.
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+        lastUsedAt = now;
+        if (tokens < config.getRequestedTokens()) {
+            return -1;
+        }
+        tokens -= config.getRequestedTokens();
+        unsynced += config.getRequestedTokens();
+        return (long) tokens;
+    }
+
+    synchronized boolean needsSync(long now) {
+        refill(now);
+        return unsynced > 0 || tokens < config.getBurstCapacity();
+    }
+
+    synchronized long drainUnsynced() {
+        long drained = unsynced;
+        unsynced = 0;
+        return drained;
+    }
+
+    synchronized void restoreUnsynced(long drained) {
+        unsynced += drained;
+    }
+
+    /**
+     * Caps the local tokens at what the cluster has left, minus what this instance took since the last drain.
+     */
+    synchronized void reconcile(double globalTokens) {
+        tokens = Math.min(tokens, Math.max(0, globalTokens - unsynced));
+    }
+
+    synchronized boolean isIdle(long now, long idleNanos) {
+        refill(now);
+        return unsynced == 0 && tokens >= config.getBurstCapacity() && now - lastUsedAt > idleNanos;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(config.getBurstCapacity(),
+                    tokens + (double) elapsed * config.getReplenishRate() / NANOS_PER_SECOND);
+            refilledAt = now;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package by.kireenko.GatewayService.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,17 +16,19 @@ public class JwtTokenUtils {
 
     @Value("${JWT_SECRET}")
     private String secret;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))).build();
+    }
 
     public void validateToken(final String token) {
-        Jwts.parser().setSigningKey(secret).build().parseSignedClaims(token);
+        getClaimsFromToken(token);
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims getClaimsFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getUsernameFromToken(String token) {
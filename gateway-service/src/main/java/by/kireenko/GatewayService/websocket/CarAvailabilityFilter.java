@@ -0,0 +1,35 @@
+package by.kireenko.GatewayService.websocket;
+
+import by.kireenko.GatewayService.dto.CarDto;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public record CarAvailabilityFilter(Set<Long> carIds, String brand, String model, Double maxPrice) {
+
+    public static CarAvailabilityFilter from(MultiValueMap<String, String> queryParams) {
+        Set<Long> carIds = queryParams.getOrDefault("carIds", List.of()).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(Long::parseLong)
+                .collect(Collectors.toUnmodifiableSet());
+        String maxPrice = queryParams.getFirst("maxPrice");
+        return new CarAvailabilityFilter(carIds, queryParams.getFirst("brand"), queryParams.getFirst("model"),
+                maxPrice != null ? Double.valueOf(maxPrice) : null);
+    }
+
+    public boolean covers(Long carId) {
+        return carIds.isEmpty() || carIds.contains(carId);
+    }
+
+    public boolean matches(CarDto car) {
+        return covers(car.getId())
+                && (brand == null || brand.equalsIgnoreCase(car.getBrand()))
+                && (model == null || model.equalsIgnoreCase(car.getModel()))
+                && (maxPrice == null || car.getRentalPrice() <= maxPrice);
+    }
+}
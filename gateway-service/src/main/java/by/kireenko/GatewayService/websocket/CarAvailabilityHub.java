@@ -0,0 +1,28 @@
+package by.kireenko.GatewayService.websocket;
+
+import by.kireenko.GatewayService.dto.CarAvailabilityMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+@Slf4j
+@Component
+public class CarAvailabilityHub {
+    private final Sinks.Many<CarAvailabilityMessage> sink = Sinks.many().multicast().directBestEffort();
+
+    public void publish(CarAvailabilityMessage message) {
+        Sinks.EmitResult result = sink.tryEmitNext(message);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Failed to publish {} for car {}: {}", message.getType(), message.getCarId(), result);
+        }
+    }
+
+    public Flux<CarAvailabilityMessage> deltas() {
+        return sink.asFlux();
+    }
+
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+}
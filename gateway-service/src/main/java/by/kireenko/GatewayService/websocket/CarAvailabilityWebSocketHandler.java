@@ -0,0 +1,222 @@
+package by.kireenko.GatewayService.websocket;
+
+import by.kireenko.GatewayService.client.CarServiceClient;
+import by.kireenko.GatewayService.dto.CarAvailabilityMessage;
+import by.kireenko.GatewayService.dto.CarDto;
+import by.kireenko.GatewayService.utils.JwtTokenUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarAvailabilityWebSocketHandler implements WebSocketHandler {
+    public static final String PATH = "/ws/cars/availability";
+
+    private static final CloseStatus TOO_SLOW = new CloseStatus(1013, "Subscriber too slow, reconnect for a fresh snapshot");
+    private static final CloseStatus BAD_FILTER = new CloseStatus(1003, "Invalid filter");
+    private static final CloseStatus TOKEN_EXPIRED = new CloseStatus(1008, "Token expired");
+
+    private final CarAvailabilityHub carAvailabilityHub;
+    private final JwtTokenUtils jwtTokenUtils;
+    private final ObjectMapper objectMapper;
+    private final CarServiceClient carServiceClient;
+
+    @Value("${gateway.car-availability.buffer-size:256}")
+    private int bufferSize;
+    @Value("${gateway.car-availability.snapshot-timeout:5s}")
+    private Duration snapshotTimeout;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String token = resolveToken(session);
+        Claims claims;
+        try {
+            claims = jwtTokenUtils.getClaimsFromToken(token);
+        } catch (Exception e) {
+            log.warn("Rejecting car availability subscription: {}", e.getMessage());
+            return session.close(CloseStatus.POLICY_VIOLATION);
+        }
+
+        CarAvailabilityFilter filter;
+        try {
+            filter = CarAvailabilityFilter.from(queryParams(session));
+        } catch (NumberFormatException e) {
+            return session.close(BAD_FILTER);
+        }
+
+        SessionFeed feed = new SessionFeed(filter, bufferSize);
+        Disposable liveSubscription = carAvailabilityHub.deltas()
+                .filter(message -> filter.covers(message.getCarId()))
+                .subscribe(feed::accept);
+
+        Flux<WebSocketMessage> messages = fetchSnapshot(token, filter)
+                .flatMapMany(cars -> Flux.concat(
+                        Mono.just(CarAvailabilityMessage.snapshot(cars)),
+                        Flux.fromIterable(feed.startLive(cars)),
+                        feed.live()))
+                .map(message -> session.textMessage(toJson(message)))
+                .onErrorResume(error -> closeOnError(session, error).then(Mono.empty()))
+                .doFinally(signal -> liveSubscription.dispose());
+
+        return session.send(messages).and(session.receive().then())
+                .or(closeOnExpiry(session, claims));
+    }
+
+    private Mono<List<CarDto>> fetchSnapshot(String token, CarAvailabilityFilter filter) {
+        return carServiceClient.fetchAvailableCars(token)
+                .timeout(snapshotTimeout)
+                .map(cars -> cars.stream().filter(filter::matches).toList());
+    }
+
+    private Mono<Void> closeOnError(WebSocketSession session, Throwable error) {
+        if (Exceptions.isOverflow(error)) {
+            log.warn("Closing car availability session {}: subscriber fell {} messages behind",
+                    session.getId(), bufferSize);
+            return session.close(TOO_SLOW);
+        }
+        log.error("Closing car availability session {} after a server error", session.getId(), error);
+        return session.close(CloseStatus.SERVER_ERROR);
+    }
+
+    private Mono<Void> closeOnExpiry(WebSocketSession session, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return Mono.never();
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+        return Mono.delay(untilExpiry.isNegative() ? Duration.ZERO : untilExpiry)
+                .then(Mono.defer(() -> {
+                    log.info("Closing car availability session {}: token expired", session.getId());
+                    return session.close(TOKEN_EXPIRED);
+                }));
+    }
+
+    private String resolveToken(WebSocketSession session) {
+        String authorization = session.getHandshakeInfo().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        return queryParams(session).getFirst("access_token");
+    }
+
+    private MultiValueMap<String, String> queryParams(WebSocketSession session) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri()).build(true).getQueryParams()
+                .forEach((name, values) -> values.forEach(value ->
+                        decoded.add(name, value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : null)));
+        return decoded;
+    }
+
+    private String toJson(CarAvailabilityMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize car availability message", e);
+        }
+    }
+
+    /**
+     * Holds one session's deltas. Until the snapshot is out, only the latest change per car is kept, so a slow
+     * snapshot cannot overflow the live buffer; after that, deltas go through a queue of {@code bufferSize}.
+     * Tracks which cars the client holds, so a car that stops matching the filter is sent as a removal.
+     */
+    private static final class SessionFeed {
+        private final Lock lock = new ReentrantLock();
+        private final Map<Long, CarAvailabilityMessage> latestWhileLoading = new LinkedHashMap<>();
+        private final Set<Long> visibleCarIds = new HashSet<>();
+        private final CarAvailabilityFilter filter;
+        private final Sinks.Many<CarAvailabilityMessage> live;
+        private boolean snapshotSent;
+
+        private SessionFeed(CarAvailabilityFilter filter, int bufferSize) {
+            this.filter = filter;
+            this.live = Sinks.many().unicast().onBackpressureBuffer(Queues.<CarAvailabilityMessage>get(bufferSize).get());
+        }
+
+        private void accept(CarAvailabilityMessage message) {
+            lock.lock();
+            try {
+                if (!snapshotSent) {
+                    latestWhileLoading.remove(message.getCarId());
+                    latestWhileLoading.put(message.getCarId(), message);
+                    return;
+                }
+                CarAvailabilityMessage delta = toDelta(message);
+                if (delta != null && live.tryEmitNext(delta) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    live.tryEmitError(Exceptions.failWithOverflow());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<CarAvailabilityMessage> startLive(List<CarDto> snapshot) {
+            lock.lock();
+            try {
+                snapshotSent = true;
+                snapshot.forEach(car -> visibleCarIds.add(car.getId()));
+                List<CarAvailabilityMessage> changes = new ArrayList<>(latestWhileLoading.size());
+                for (CarAvailabilityMessage message : latestWhileLoading.values()) {
+                    CarAvailabilityMessage delta = toDelta(message);
+                    if (delta != null) {
+                        changes.add(delta);
+                    }
+                }
+                latestWhileLoading.clear();
+                return changes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Turns a hub message into what this client should see, or {@code null} if the change is not visible to it.
+         */
+        private CarAvailabilityMessage toDelta(CarAvailabilityMessage message) {
+            if (message.getCar() != null && filter.matches(message.getCar())) {
+                visibleCarIds.add(message.getCarId());
+                return message;
+            }
+            if (!visibleCarIds.remove(message.getCarId())) {
+                return null;
+            }
+            return message.getCar() == null ? message : CarAvailabilityMessage.remove(message.getCarId());
+        }
+
+        private Flux<CarAvailabilityMessage> live() {
+            return live.asFlux();
+        }
+    }
+}
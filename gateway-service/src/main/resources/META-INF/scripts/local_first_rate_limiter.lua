@@ -0,0 +1,22 @@
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local remaining = {}
+for i, key in ipairs(KEYS) do
+    local offset = (i - 1) * 3
+    local rate = tonumber(ARGV[offset + 1])
+    local capacity = tonumber(ARGV[offset + 2])
+    local consumed = tonumber(ARGV[offset + 3])
+
+    local state = redis.call('HMGET', key, 'tokens', 'timestamp')
+    local tokens = tonumber(state[1]) or capacity
+    local timestamp = tonumber(state[2]) or now
+
+    tokens = math.min(capacity, tokens + math.max(0, now - timestamp) * rate / 1000)
+    tokens = math.max(0, tokens - consumed)
+
+    redis.call('HSET', key, 'tokens', tostring(tokens), 'timestamp', tostring(now))
+    redis.call('PEXPIRE', key, math.ceil(capacity / rate * 2000) + 1000)
+    remaining[i] = tostring(tokens)
+end
+return remaining
@@ -13,24 +13,33 @@ async function loadBookings() {
     }
 
     try {
-        const response = await fetch('http://localhost:8080/api/bookings', {
-            headers: {
-                'Authorization': `Bearer ${token}`,
-                'Content-Type': 'application/json'
-            }
-        });
+        const bookings = [];
+        let cursor = null;
+        do {
+            const url = cursor
+                ? `http://localhost:8080/api/bookings?cursor=${encodeURIComponent(cursor)}`
+                : 'http://localhost:8080/api/bookings';
+            const response = await fetch(url, {
+                headers: {
+                    'Authorization': `Bearer ${token}`,
+                    'Content-Type': 'application/json'
+                }
+            });
 
-        if (response.status === 401) {
-            localStorage.removeItem('jwtToken');
-            window.location.href = '/login.html';
-            return;
-        }
+            if (response.status === 401) {
+                localStorage.removeItem('jwtToken');
+                window.location.href = '/login.html';
+                return;
+            }
 
-        if (!response.ok) {
-            throw new Error(`HTTP error! Status: ${response.status}`);
-        }
+            if (!response.ok) {
+                throw new Error(`HTTP error! Status: ${response.status}`);
+            }
 
-        const bookings = await response.json();
+            const page = await response.json();
+            bookings.push(...page.bookings);
+            cursor = page.nextCursor;
+        } while (cursor);
 
         tableBody.innerHTML = '';
 
@@ -0,0 +1,95 @@
+package by.kireenko.GatewayService.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalFirstRateLimiterTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ConfigurationService configurationService;
+
+    private LocalFirstRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultConfig().setReplenishRate(1);
+        rateLimiter = new LocalFirstRateLimiter(redisTemplate, configurationService, properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void synchronize_RedisFails_ShouldRestoreUnsyncedTokensForNextSync() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("Redis is down")))
+                .thenReturn(Flux.just(List.of(5L)));
+        consume(3);
+
+        synchronize();
+        synchronize();
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), args.capture());
+        assertThat(args.getAllValues()).extracting(values -> values.get(2)).containsExactly("3", "3");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void synchronize_RedisReturnsRemainder_ShouldCapLocalBucket() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(List.of(2L)));
+        consume(3);
+
+        synchronize();
+
+        assertThat(rateLimiter.isAllowed("booking-route", "alice").block().getHeaders())
+                .containsEntry(LocalFirstRateLimiter.REMAINING_HEADER, "1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void synchronize_SeveralKeys_ShouldShareOneHashTagPerBatch() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(List.of(5L, 5L)));
+        rateLimiter.isAllowed("booking-route", "alice").block();
+        rateLimiter.isAllowed("booking-route", "bob").block();
+
+        synchronize();
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), anyList());
+        assertThat(keys.getValue()).containsExactlyInAnyOrder(
+                "{gateway.local_first_rate_limiter}.booking-route:alice",
+                "{gateway.local_first_rate_limiter}.booking-route:bob");
+    }
+
+    private void consume(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(rateLimiter.isAllowed("booking-route", "alice").block().isAllowed()).isTrue();
+        }
+    }
+
+    private void synchronize() {
+        ReflectionTestUtils.<Mono<Void>>invokeMethod(rateLimiter, "synchronize").block();
+    }
+}
@@ -0,0 +1,135 @@
+package by.kireenko.GatewayService.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void tryConsume_BurstExhausted_ShouldDenyUntilRefilled() {
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+
+        for (long expected = 4; expected >= 0; expected--) {
+            assertThat(bucket.tryConsume(0)).isEqualTo(expected);
+        }
+        assertThat(bucket.tryConsume(0)).isEqualTo(-1);
+        assertThat(bucket.tryConsume(50 * MS)).isEqualTo(-1);
+        assertThat(bucket.tryConsume(100 * MS)).isZero();
+    }
+
+    @Test
+    public void tryConsume_LongPause_ShouldRefillOnlyUpToBurstCapacity() {
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(10_000 * MS)).isEqualTo(4);
+    }
+
+    @Test
+    public void drainUnsynced_ShouldReturnTokensTakenSinceLastDrain() {
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.drainUnsynced()).isEqualTo(5);
+        assertThat(bucket.drainUnsynced()).isZero();
+    }
+
+    @Test
+    public void restoreUnsynced_ShouldReturnDrainedTokensToNextSync() {
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        long drained = bucket.drainUnsynced();
+        bucket.tryConsume(0);
+
+        bucket.restoreUnsynced(drained);
+
+        assertThat(bucket.drainUnsynced()).isEqualTo(3);
+    }
+
+    @Test
+    public void reconcile_ShouldCapAtGlobalRemainderMinusUnsynced() {
+        TokenBucket bucket = new TokenBucket(config(10, 10), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.drainUnsynced();
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        bucket.reconcile(4);
+
+        assertThat(bucket.tryConsume(0)).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcile_GlobalBelowUnsynced_ShouldEmptyBucket() {
+        TokenBucket bucket = new TokenBucket(config(10, 10), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        bucket.reconcile(1);
+
+        assertThat(bucket.tryConsume(0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void reconcile_GlobalAboveLocal_ShouldNotAddTokens() {
+        TokenBucket bucket = new TokenBucket(config(10, 10), 0);
+        bucket.tryConsume(0);
+        bucket.drainUnsynced();
+
+        bucket.reconcile(10);
+
+        assertThat(bucket.tryConsume(0)).isEqualTo(8);
+    }
+
+    @Test
+    public void needsSync_ShouldHoldUntilDrainedAndRefilled() {
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+        assertThat(bucket.needsSync(0)).isFalse();
+
+        bucket.tryConsume(0);
+        assertThat(bucket.needsSync(0)).isTrue();
+
+        bucket.drainUnsynced();
+        assertThat(bucket.needsSync(50 * MS)).isTrue();
+        assertThat(bucket.needsSync(100 * MS)).isFalse();
+    }
+
+    @Test
+    public void isIdle_ShouldRequireFullSyncedBucketUnusedForIdleTimeout() {
+        long idleNanos = 1_000 * MS;
+        TokenBucket bucket = new TokenBucket(config(10, 5), 0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.isIdle(2_000 * MS, idleNanos)).isFalse();
+
+        bucket.drainUnsynced();
+        assertThat(bucket.isIdle(2_000 * MS, idleNanos)).isTrue();
+
+        bucket.tryConsume(2_000 * MS);
+        bucket.drainUnsynced();
+        assertThat(bucket.isIdle(2_500 * MS, idleNanos)).isFalse();
+        assertThat(bucket.isIdle(3_001 * MS, idleNanos)).isTrue();
+    }
+
+    private LocalFirstRateLimiter.Config config(int replenishRate, int burstCapacity) {
+        LocalFirstRateLimiter.Config config = new LocalFirstRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        config.setRequestedTokens(1);
+        return config;
+    }
+}
@@ -0,0 +1,187 @@
+package services;
+
+import by.kireenko.GatewayService.client.CarServiceClient;
+import by.kireenko.GatewayService.dto.CarAvailabilityMessage;
+import by.kireenko.GatewayService.dto.CarDto;
+import by.kireenko.GatewayService.utils.JwtTokenUtils;
+import by.kireenko.GatewayService.websocket.CarAvailabilityHub;
+import by.kireenko.GatewayService.websocket.CarAvailabilityWebSocketHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityWebSocketHandlerTest {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtdGhhdC1pcy1sb25nLWVub3VnaC1mb3ItaHMyNTY=";
+
+    @Mock
+    private CarServiceClient carServiceClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CarAvailabilityHub carAvailabilityHub = new CarAvailabilityHub();
+    private final List<CarAvailabilityMessage> sent = new CopyOnWriteArrayList<>();
+    private final AtomicReference<CloseStatus> closeStatus = new AtomicReference<>();
+    private final Sinks.Empty<Void> closed = Sinks.empty();
+
+    private CarAvailabilityWebSocketHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        JwtTokenUtils jwtTokenUtils = new JwtTokenUtils();
+        ReflectionTestUtils.setField(jwtTokenUtils, "secret", SECRET);
+        jwtTokenUtils.init();
+        handler = new CarAvailabilityWebSocketHandler(carAvailabilityHub, jwtTokenUtils, objectMapper, carServiceClient);
+        ReflectionTestUtils.setField(handler, "bufferSize", 2);
+        ReflectionTestUtils.setField(handler, "snapshotTimeout", Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void handle_DeltasDuringSlowSnapshot_ShouldBeCoalescedInsteadOfOverflowing() {
+        Sinks.One<List<CarDto>> snapshot = Sinks.one();
+        when(carServiceClient.fetchAvailableCars(anyString())).thenReturn(snapshot.asMono());
+
+        Disposable subscription = handler.handle(session(token(Instant.now().plusSeconds(3600)))).subscribe();
+        for (long carId = 1; carId <= 5; carId++) {
+            carAvailabilityHub.publish(CarAvailabilityMessage.upsert(car(carId, 100)));
+        }
+        carAvailabilityHub.publish(CarAvailabilityMessage.upsert(car(1L, 80)));
+        snapshot.tryEmitValue(List.of(car(9L, 50)));
+        carAvailabilityHub.publish(CarAvailabilityMessage.remove(2L));
+
+        assertThat(closeStatus.get()).isNull();
+        assertThat(sent).extracting(CarAvailabilityMessage::getType).containsExactly(CarAvailabilityMessage.SNAPSHOT,
+                CarAvailabilityMessage.UPSERT, CarAvailabilityMessage.UPSERT, CarAvailabilityMessage.UPSERT,
+                CarAvailabilityMessage.UPSERT, CarAvailabilityMessage.UPSERT, CarAvailabilityMessage.REMOVE);
+        assertThat(sent.get(5).getCar().getRentalPrice()).isEqualTo(80);
+        subscription.dispose();
+        assertThat(carAvailabilityHub.subscriberCount()).isZero();
+    }
+
+    @Test
+    public void handle_CarLeavesFilter_ShouldBeSentAsRemove() {
+        when(carServiceClient.fetchAvailableCars(anyString())).thenReturn(Mono.just(List.of(car(1L, 90))));
+
+        Disposable subscription = handler.handle(session(token(Instant.now().plusSeconds(3600)), "&maxPrice=100"))
+                .subscribe();
+        carAvailabilityHub.publish(CarAvailabilityMessage.upsert(car(1L, 150)));
+        carAvailabilityHub.publish(CarAvailabilityMessage.upsert(car(2L, 150)));
+        carAvailabilityHub.publish(CarAvailabilityMessage.remove(2L));
+        carAvailabilityHub.publish(CarAvailabilityMessage.upsert(car(1L, 95)));
+
+        assertThat(sent).extracting(CarAvailabilityMessage::getType).containsExactly(CarAvailabilityMessage.SNAPSHOT,
+                CarAvailabilityMessage.REMOVE, CarAvailabilityMessage.UPSERT);
+        assertThat(sent).extracting(CarAvailabilityMessage::getCarId).containsExactly(null, 1L, 1L);
+        subscription.dispose();
+    }
+
+    @Test
+    public void handle_SnapshotFails_ShouldCloseWithServerError() {
+        when(carServiceClient.fetchAvailableCars(anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("car-service unavailable")));
+
+        handler.handle(session(token(Instant.now().plusSeconds(3600)))).block(Duration.ofSeconds(5));
+
+        assertThat(closeStatus.get()).isEqualTo(CloseStatus.SERVER_ERROR);
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    public void handle_TokenExpires_ShouldCloseSessionAtExpiry() {
+        when(carServiceClient.fetchAvailableCars(anyString())).thenReturn(Mono.just(List.of()));
+
+        handler.handle(session(token(Instant.now().plusSeconds(2)))).block(Duration.ofSeconds(5));
+
+        assertThat(closeStatus.get().getCode()).isEqualTo(CloseStatus.POLICY_VIOLATION.getCode());
+        assertThat(closeStatus.get().getReason()).isEqualTo("Token expired");
+        assertThat(carAvailabilityHub.subscriberCount()).isZero();
+    }
+
+    @Test
+    public void handle_InvalidToken_ShouldRejectSession() {
+        handler.handle(session("not-a-token")).block(Duration.ofSeconds(5));
+
+        assertThat(closeStatus.get()).isEqualTo(CloseStatus.POLICY_VIOLATION);
+        verifyNoInteractions(carServiceClient);
+    }
+
+    private WebSocketSession session(String token) {
+        return session(token, "");
+    }
+
+    @SuppressWarnings("unchecked")
+    private WebSocketSession session(String token, String query) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn("session-1");
+        when(session.getHandshakeInfo()).thenReturn(new HandshakeInfo(
+                URI.create("ws://localhost" + CarAvailabilityWebSocketHandler.PATH + "?access_token=" + token + query),
+                new HttpHeaders(), Mono.empty(), null));
+        lenient().when(session.textMessage(anyString())).thenAnswer(invocation -> new WebSocketMessage(
+                WebSocketMessage.Type.TEXT,
+                DefaultDataBufferFactory.sharedInstance.wrap(invocation.<String>getArgument(0).getBytes(StandardCharsets.UTF_8))));
+        lenient().when(session.send(any())).thenAnswer(invocation -> Flux.from((Publisher<WebSocketMessage>) invocation.getArgument(0))
+                .doOnNext(message -> sent.add(read(message.getPayloadAsText())))
+                .then());
+        lenient().when(session.receive()).thenReturn(Flux.<WebSocketMessage>never().takeUntilOther(closed.asMono()));
+        lenient().when(session.close(any())).thenAnswer(invocation -> {
+            closeStatus.set(invocation.getArgument(0));
+            closed.tryEmitEmpty();
+            return Mono.empty();
+        });
+        return session;
+    }
+
+    private CarAvailabilityMessage read(String json) {
+        try {
+            return objectMapper.readValue(json, CarAvailabilityMessage.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String token(Instant expiresAt) {
+        return Jwts.builder()
+                .subject("user")
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+
+    private CarDto car(Long id, double rentalPrice) {
+        CarDto car = new CarDto();
+        car.setId(id);
+        car.setRentalPrice(rentalPrice);
+        return car;
+    }
+}
@@ -0,0 +1,89 @@
+package by.kireenko.SecurityCommon.config;
+
+import by.kireenko.SecurityCommon.utils.IdentityHeaderSigner;
+import by.kireenko.SecurityCommon.utils.JwtPrincipal;
+import by.kireenko.SecurityCommon.utils.JwtTokenParser;
+import io.jsonwebtoken.ExpiredJwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Slf4j
+public class JwtRequestFilter extends OncePerRequestFilter {
+    private final JwtTokenParser jwtTokenParser;
+    private final IdentityHeaderSigner identityHeaderSigner;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = principalFromIdentityHeaders(request);
+            if (principal != null) {
+                authenticate(principal);
+            }
+        }
+
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal;
+            try {
+                principal = jwtTokenParser.parse(authHeader.substring(7));
+            } catch (ExpiredJwtException e) {
+                log.warn("JWT token has expired for user: {}", e.getClaims().getSubject());
+                throw e;
+            }
+            if (principal.username() != null) {
+                authenticate(principal);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private JwtPrincipal principalFromIdentityHeaders(HttpServletRequest request) {
+        String username = request.getHeader(IdentityHeaderSigner.USER_HEADER);
+        if (identityHeaderSigner == null || username == null) {
+            return null;
+        }
+        String roles = request.getHeader(IdentityHeaderSigner.ROLES_HEADER);
+        String expires = request.getHeader(IdentityHeaderSigner.EXPIRES_HEADER);
+        if (!identityHeaderSigner.verify(username, roles, expires,
+                request.getHeader(IdentityHeaderSigner.SIGNATURE_HEADER))) {
+            log.warn("Ignoring identity headers with an invalid signature for user: {}", username);
+            return null;
+        }
+        Instant expiresAt;
+        try {
+            expiresAt = Instant.ofEpochSecond(Long.parseLong(expires));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!expiresAt.isAfter(Instant.now())) {
+            return null;
+        }
+        List<String> roleList = roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+        return new JwtPrincipal(username, roleList, expiresAt);
+    }
+
+    private void authenticate(JwtPrincipal principal) {
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                principal.username(),
+                null,
+                principal.roles().stream().map(SimpleGrantedAuthority::new).toList()
+        );
+        SecurityContextHolder.getContext().setAuthentication(token);
+    }
+}
@@ -0,0 +1,30 @@
+package by.kireenko.SecurityCommon.config;
+
+import by.kireenko.SecurityCommon.utils.IdentityHeaderSigner;
+import by.kireenko.SecurityCommon.utils.JwtTokenParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class JwtSecurityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtTokenParser jwtTokenParser(@Value("${JWT_SECRET}") String secret,
+                                         @Value("${security.jwt.claims-cache.max-size:10000}") int maxCachedTokens) {
+        return new JwtTokenParser(secret, maxCachedTokens);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtRequestFilter jwtRequestFilter(JwtTokenParser jwtTokenParser,
+                                             @Value("${security.identity-headers.enabled:false}") boolean identityHeadersEnabled,
+                                             @Value("${security.identity-headers.secret:${JWT_SECRET}}") String identityHeadersSecret) {
+        return new JwtRequestFilter(jwtTokenParser,
+                identityHeadersEnabled ? new IdentityHeaderSigner(identityHeadersSecret) : null);
+    }
+}
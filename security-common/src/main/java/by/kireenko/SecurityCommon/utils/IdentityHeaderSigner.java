@@ -0,0 +1,49 @@
+package by.kireenko.SecurityCommon.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+public class IdentityHeaderSigner {
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+    public static final List<String> HEADERS = List.of(USER_HEADER, ROLES_HEADER, EXPIRES_HEADER, SIGNATURE_HEADER);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    public IdentityHeaderSigner(String secret) {
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize identity header signer", e);
+        }
+    }
+
+    public String sign(String username, String roles, String expires) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            byte[] tag = mac.doFinal(("identity:v1\n" + username + "\n" + roles + "\n" + expires)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(tag);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Could not sign identity headers", e);
+        }
+    }
+
+    public boolean verify(String username, String roles, String expires, String signature) {
+        if (username == null || roles == null || expires == null || signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(username, roles, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,7 @@
+package by.kireenko.SecurityCommon.utils;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JwtPrincipal(String username, List<String> roles, Instant expiresAt) {
+}
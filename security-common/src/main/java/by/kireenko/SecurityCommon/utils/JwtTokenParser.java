@@ -0,0 +1,109 @@
+package by.kireenko.SecurityCommon.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class JwtTokenParser {
+    private final JwtParser parser;
+    private final int maxCachedTokens;
+    private final Clock clock;
+
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<String, JwtPrincipal> principalsByDigest = new LinkedHashMap<>(16, 0.75f, true);
+
+    public JwtTokenParser(String secret, int maxCachedTokens) {
+        this(secret, maxCachedTokens, Clock.systemUTC());
+    }
+
+    public JwtTokenParser(String secret, int maxCachedTokens, Clock clock) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.maxCachedTokens = maxCachedTokens;
+        this.clock = clock;
+    }
+
+    public JwtPrincipal parse(String token) {
+        String digest = digest(token);
+        Instant now = clock.instant();
+
+        lock.lock();
+        try {
+            JwtPrincipal cached = principalsByDigest.get(digest);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                return cached;
+            }
+            if (cached != null) {
+                principalsByDigest.remove(digest);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        List<String> roles = claims.get("roles", List.class);
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), roles != null ? List.copyOf(roles) : List.of(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        if (principal.expiresAt() != null) {
+            put(digest, principal);
+        }
+        return principal;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parse(token).username();
+    }
+
+    public List<String> getRolesFromToken(String token) {
+        return parse(token).roles();
+    }
+
+    public int cachedTokens() {
+        lock.lock();
+        try {
+            return principalsByDigest.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String digest, JwtPrincipal principal) {
+        lock.lock();
+        try {
+            principalsByDigest.put(digest, principal);
+            if (principalsByDigest.size() > maxCachedTokens) {
+                Instant now = clock.instant();
+                principalsByDigest.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+            }
+            Iterator<JwtPrincipal> eldest = principalsByDigest.values().iterator();
+            while (principalsByDigest.size() > maxCachedTokens && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package services;
+
+import by.kireenko.SecurityCommon.config.JwtRequestFilter;
+import by.kireenko.SecurityCommon.utils.IdentityHeaderSigner;
+import by.kireenko.SecurityCommon.utils.JwtPrincipal;
+import by.kireenko.SecurityCommon.utils.JwtTokenParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JwtRequestFilterTest {
+    private static final String SECRET = "identity-secret";
+
+    private final JwtTokenParser jwtTokenParser = mock(JwtTokenParser.class);
+    private final IdentityHeaderSigner signer = new IdentityHeaderSigner(SECRET);
+    private final JwtRequestFilter filter = new JwtRequestFilter(jwtTokenParser, signer);
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void doFilter_WithSignedIdentityHeaders_ShouldSkipJwtVerification() throws Exception {
+        MockHttpServletRequest request = signedRequest("user", "ROLE_USER,ROLE_ADMIN", future());
+        request.addHeader("Authorization", "Bearer token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("user");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ADMIN");
+        verifyNoInteractions(jwtTokenParser);
+    }
+
+    @Test
+    public void doFilter_WithTamperedIdentityHeaders_ShouldFallBackToJwt() throws Exception {
+        MockHttpServletRequest request = signedRequest("user", "ROLE_USER", future());
+        request.removeHeader(IdentityHeaderSigner.ROLES_HEADER);
+        request.addHeader(IdentityHeaderSigner.ROLES_HEADER, "ROLE_ADMIN");
+        request.addHeader("Authorization", "Bearer token");
+        when(jwtTokenParser.parse("token")).thenReturn(new JwtPrincipal("user", List.of("ROLE_USER"), Instant.now()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(jwtTokenParser).parse("token");
+    }
+
+    @Test
+    public void doFilter_WithExpiredIdentityHeaders_ShouldNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = signedRequest("user", "ROLE_USER",
+                String.valueOf(Instant.now().minusSeconds(1).getEpochSecond()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private MockHttpServletRequest signedRequest(String username, String roles, String expires) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentityHeaderSigner.USER_HEADER, username);
+        request.addHeader(IdentityHeaderSigner.ROLES_HEADER, roles);
+        request.addHeader(IdentityHeaderSigner.EXPIRES_HEADER, expires);
+        request.addHeader(IdentityHeaderSigner.SIGNATURE_HEADER, signer.sign(username, roles, expires));
+        return request;
+    }
+
+    private String future() {
+        return String.valueOf(Instant.now().plusSeconds(600).getEpochSecond());
+    }
+}
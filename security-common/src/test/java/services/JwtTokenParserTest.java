@@ -0,0 +1,70 @@
+package services;
+
+import by.kireenko.SecurityCommon.utils.JwtPrincipal;
+import by.kireenko.SecurityCommon.utils.JwtTokenParser;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtTokenParserTest {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtdGhhdC1pcy1sb25nLWVub3VnaC1mb3ItaHMyNTY=";
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final JwtTokenParser parser = new JwtTokenParser(SECRET, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    public void parse_ShouldReturnSameCachedPrincipalForRepeatedToken() {
+        String token = token("user", NOW.plus(Duration.ofMinutes(30)), SECRET);
+
+        JwtPrincipal first = parser.parse(token);
+        JwtPrincipal second = parser.parse(token);
+
+        assertThat(first.username()).isEqualTo("user");
+        assertThat(first.roles()).containsExactly("ROLE_USER");
+        assertThat(second).isSameAs(first);
+        assertThat(parser.cachedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    public void parse_ShouldKeepCacheBounded() {
+        parser.parse(token("a", NOW.plusSeconds(60), SECRET));
+        parser.parse(token("b", NOW.plusSeconds(60), SECRET));
+        parser.parse(token("c", NOW.plusSeconds(60), SECRET));
+
+        assertThat(parser.cachedTokens()).isEqualTo(2);
+    }
+
+    @Test
+    public void parse_ShouldRejectExpiredOrForeignTokens() {
+        String foreignSecret = "b3RoZXItc2VjcmV0LWtleS10aGF0LWlzLWFsc28tbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+
+        assertThrows(ExpiredJwtException.class, () -> parser.parse(token("user", NOW.minusSeconds(1), SECRET)));
+        assertThrows(SignatureException.class,
+                () -> parser.parse(token("user", NOW.plusSeconds(60), foreignSecret)));
+        assertThat(parser.cachedTokens()).isZero();
+    }
+
+    private String token(String username, Instant expiresAt, String secret) {
+        return Jwts.builder()
+                .claims(Map.of("roles", List.of("ROLE_USER")))
+                .subject(username)
+                .issuedAt(Date.from(NOW.minusSeconds(10)))
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .compact();
+    }
+}
@@ -1,5 +1,6 @@
 package by.kireenko.UserService.config;
 
+import by.kireenko.SecurityCommon.config.JwtRequestFilter;
 import by.kireenko.UserService.services.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
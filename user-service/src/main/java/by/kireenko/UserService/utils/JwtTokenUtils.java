@@ -1,6 +1,5 @@
 package by.kireenko.UserService.utils;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,20 +30,4 @@ public class JwtTokenUtils {
                 .setSubject(userDetails.getUsername()).setIssuedAt(issuedDate).setExpiration(expiriedDate)
                 .signWith(SignatureAlgorithm.HS256, secret).compact();
     }
-
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
-    }
-
-    public List<String> getRolesFromToken(String token) {
-        return getClaimsFromToken(token).get("roles", List.class);
-    }
 }